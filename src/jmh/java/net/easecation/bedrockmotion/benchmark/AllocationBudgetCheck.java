@@ -0,0 +1,154 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import net.easecation.bedrockmotion.animator.Animator;
+import net.easecation.bedrockmotion.benchmark.support.BenchmarkFixtures;
+import net.easecation.bedrockmotion.benchmark.support.SimpleBoneModel;
+import net.easecation.bedrockmotion.controller.AnimationController;
+import net.easecation.bedrockmotion.controller.AnimationControllerInstance;
+import net.easecation.bedrockmotion.pack.PackManager;
+import net.easecation.bedrockmotion.pack.definitions.AnimationDefinitions;
+import net.easecation.bedrockmotion.render.RenderControllerEvaluator;
+import org.cube.converter.data.bedrock.BedrockEntityData;
+import org.cube.converter.parser.bedrock.data.impl.BedrockEntityParser;
+import team.unnamed.mocha.runtime.value.MutableObjectBinding;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Allocation regression check for the per-tick paths. Each scenario is warmed up (so the JIT has had the chance
+ * to scalar-replace what it can), then measured with {@code ThreadMXBean.getThreadAllocatedBytes}; the process
+ * exits with status 1 when a scenario allocates more bytes per tick than its budget.
+ * <p>
+ * Run with {@code ./gradlew allocationCheck}; it is not part of {@code check}. Budgets can be overridden with
+ * {@code -Dbudget.<scenario>=<bytes>}; lower them when an allocation is removed so it cannot creep back in.
+ * <p>
+ * The budgets below are provisional: they were estimated from the allocation paths, not measured, and what a tick
+ * allocates depends on the JVM vendor, the GC and escape analysis. Replace each one with the printed steady-state
+ * number plus a small margin, and name the JDK it was measured on here (the run prints it), before wiring the task
+ * into {@code check}.
+ */
+public final class AllocationBudgetCheck {
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 10_000;
+
+    private AllocationBudgetCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final List<Scenario> scenarios = List.of(
+                animator(),
+                controller(),
+                renderController());
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("Thread allocation accounting is not supported by this JVM");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        System.out.printf(Locale.ROOT, "%s %s, GC %s%n", System.getProperty("java.vm.name"),
+                System.getProperty("java.runtime.version"),
+                ManagementFactory.getGarbageCollectorMXBeans().stream().map(GarbageCollectorMXBean::getName).toList());
+        final long threadId = Thread.currentThread().getId();
+
+        final List<String> failures = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            for (int i = 0; i < WARMUP_TICKS; i++) {
+                scenario.tick.run(i);
+            }
+            final long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_TICKS; i++) {
+                scenario.tick.run(WARMUP_TICKS + i);
+            }
+            final double perTick = (threads.getThreadAllocatedBytes(threadId) - before) / (double) MEASURED_TICKS;
+            final long budget = Long.getLong("budget." + scenario.name, scenario.budgetBytes);
+            final boolean ok = perTick <= budget;
+            System.out.printf(Locale.ROOT, "%-28s %10.1f B/tick  budget %6d  %s%n",
+                    scenario.name, perTick, budget, ok ? "OK" : "OVER BUDGET");
+            if (!ok) {
+                failures.add(scenario.name);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            System.err.println("Allocation budget exceeded: " + failures);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * {@link Animator#animate} of the vanilla walk cycle on a humanoid.
+     */
+    private static Scenario animator() {
+        final AnimationDefinitions.AnimationData data = BenchmarkFixtures.packManager()
+                .getAnimationDefinitions().getAnimations().get("animation.humanoid.move");
+        final BenchmarkFixtures.EntityScope entity = new BenchmarkFixtures.EntityScope();
+        final SimpleBoneModel model = new SimpleBoneModel(BenchmarkFixtures.HUMANOID_BONES);
+        final Animator animator = new Animator(entity, data);
+        animator.setBaseScope(entity.scope);
+        return new Scenario("animator", 256, tick -> {
+            entity.update(tick * 0.05f, false);
+            model.resetAllBones();
+            animator.animate(model);
+        });
+    }
+
+    /**
+     * {@link AnimationControllerInstance#tick} and {@link AnimationControllerInstance#animate} in steady state.
+     */
+    private static Scenario controller() {
+        final PackManager packManager = BenchmarkFixtures.packManager();
+        final AnimationController definition = packManager.getAnimationControllerDefinitions().getControllers()
+                .get(BenchmarkFixtures.CONTROLLER);
+        final BenchmarkFixtures.EntityScope entity = new BenchmarkFixtures.EntityScope();
+        final SimpleBoneModel model = new SimpleBoneModel(BenchmarkFixtures.HUMANOID_BONES);
+        final AnimationControllerInstance instance = new AnimationControllerInstance(definition,
+                BenchmarkFixtures.ENTITY_ANIMATIONS, packManager.getAnimationDefinitions(), entity);
+        instance.setBaseScope(entity.scope);
+        return new Scenario("animation_controller", 768, tick -> {
+            entity.update(tick * 0.05f, false);
+            model.resetAllBones();
+            instance.tick(entity.scope);
+            instance.animate(model);
+        });
+    }
+
+    /**
+     * {@link RenderControllerEvaluator#evaluate} for the vanilla pig.
+     */
+    private static Scenario renderController() {
+        final BedrockEntityData pig = BedrockEntityParser.parse(BenchmarkFixtures.PIG_ENTITY_JSON);
+        final BenchmarkFixtures.EntityScope entity = new BenchmarkFixtures.EntityScope();
+        final MutableObjectBinding geometry = new MutableObjectBinding();
+        geometry.set("default", Value.of("geometry.pig.v1.8"));
+        geometry.block();
+        final MutableObjectBinding texture = new MutableObjectBinding();
+        texture.set("default", Value.of("textures/entity/pig/pig"));
+        texture.set("saddled", Value.of("textures/entity/pig/pig_saddle"));
+        texture.block();
+        entity.scope.set("geometry", geometry);
+        entity.scope.set("texture", texture);
+
+        final Map<String, String> inverseGeometry = Map.of("geometry.pig.v1.8", "default");
+        final Map<String, String> inverseTexture = Map.of(
+                "textures/entity/pig/pig", "default",
+                "textures/entity/pig/pig_saddle", "saddled");
+        final PackManager packManager = BenchmarkFixtures.packManager();
+        return new Scenario("render_controller", 1536, tick -> RenderControllerEvaluator.evaluate(pig, entity.scope,
+                packManager.getRenderControllerDefinitions(), inverseGeometry, inverseTexture));
+    }
+
+    @FunctionalInterface
+    private interface Tick {
+        void run(int tick) throws Exception;
+    }
+
+    private record Scenario(String name, long budgetBytes, Tick tick) {
+    }
+}
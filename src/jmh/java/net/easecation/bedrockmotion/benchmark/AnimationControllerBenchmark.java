@@ -0,0 +1,71 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import net.easecation.bedrockmotion.benchmark.support.BenchmarkFixtures;
+import net.easecation.bedrockmotion.benchmark.support.SimpleBoneModel;
+import net.easecation.bedrockmotion.controller.AnimationController;
+import net.easecation.bedrockmotion.controller.AnimationControllerInstance;
+import net.easecation.bedrockmotion.pack.PackManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AnimationControllerInstance#tick} plus {@link AnimationControllerInstance#animate} for one entity.
+ * <ul>
+ *     <li>{@code steady}: the controller sits in its initial state.</li>
+ *     <li>{@code crossfade}: a transition with a very long {@code blend_transition} is triggered during setup,
+ *     so every measured call animates both the outgoing and the incoming state.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class AnimationControllerBenchmark {
+    @Param({"steady", "crossfade"})
+    public String phase;
+
+    private BenchmarkFixtures.EntityScope entity;
+    private SimpleBoneModel model;
+    private AnimationControllerInstance instance;
+    private float lifeTime;
+    private boolean sneaking;
+
+    @Setup
+    public void setup() {
+        final PackManager packManager = BenchmarkFixtures.packManager();
+        final boolean crossfade = phase.equals("crossfade");
+        final AnimationController controller = packManager.getAnimationControllerDefinitions().getControllers()
+                .get(crossfade ? BenchmarkFixtures.CROSSFADE_CONTROLLER : BenchmarkFixtures.CONTROLLER);
+        if (controller == null) {
+            throw new IllegalStateException("Benchmark controller was not loaded");
+        }
+
+        entity = new BenchmarkFixtures.EntityScope();
+        model = new SimpleBoneModel(BenchmarkFixtures.HUMANOID_BONES);
+        instance = new AnimationControllerInstance(controller, BenchmarkFixtures.ENTITY_ANIMATIONS,
+                packManager.getAnimationDefinitions(), entity);
+        instance.setBaseScope(entity.scope);
+        instance.tick(entity.scope);
+
+        if (crossfade) {
+            // Enter the second state once; the 100000s blend keeps both states alive for the whole run
+            sneaking = true;
+            entity.update(0, true);
+            instance.tick(entity.scope);
+            instance.setBaseScope(entity.scope);
+        }
+    }
+
+    @Benchmark
+    public SimpleBoneModel tickAndAnimate() {
+        lifeTime += 0.05f;
+        entity.update(lifeTime, sneaking);
+        model.resetAllBones();
+        instance.tick(entity.scope);
+        instance.animate(model);
+        return model;
+    }
+}
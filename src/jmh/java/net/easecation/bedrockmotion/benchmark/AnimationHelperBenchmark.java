@@ -0,0 +1,56 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import net.easecation.bedrockmotion.animation.vanilla.AnimationHelper;
+import net.easecation.bedrockmotion.animation.vanilla.VBUAnimation;
+import net.easecation.bedrockmotion.benchmark.support.BenchmarkFixtures;
+import net.easecation.bedrockmotion.benchmark.support.SimpleBoneModel;
+import net.easecation.bedrockmotion.model.IBoneTarget;
+import net.easecation.bedrockmotion.pack.definitions.AnimationDefinitions;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link AnimationHelper#animate} call (all bones of one animation) on vanilla animations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class AnimationHelperBenchmark {
+    @Param({"animation.humanoid.move", "animation.humanoid.bob", "animation.humanoid.sneaking", "animation.player.swim"})
+    public String animation;
+
+    private BenchmarkFixtures.EntityScope entity;
+    private SimpleBoneModel model;
+    private Map<String, IBoneTarget> boneIndex;
+    private VBUAnimation compiled;
+    private final Vector3f tempVec = new Vector3f();
+    private long runningTime;
+
+    @Setup
+    public void setup() {
+        final AnimationDefinitions.AnimationData data = BenchmarkFixtures.packManager()
+                .getAnimationDefinitions().getAnimations().get(animation);
+        if (data == null) {
+            throw new IllegalStateException("Animation " + animation + " is not in the vanilla pack");
+        }
+        compiled = data.compiled();
+        entity = new BenchmarkFixtures.EntityScope();
+        model = new SimpleBoneModel(BenchmarkFixtures.HUMANOID_BONES);
+        boneIndex = model.getBoneIndex();
+    }
+
+    @Benchmark
+    public SimpleBoneModel animate() {
+        // Advance one 20 TPS tick per call so keyframe lookup does not settle on a single segment
+        runningTime = (runningTime + 50) % 60_000;
+        model.resetAllBones();
+        AnimationHelper.animate(entity.scope, model, compiled, runningTime, 1.0f, tempVec, boneIndex);
+        return model;
+    }
+}
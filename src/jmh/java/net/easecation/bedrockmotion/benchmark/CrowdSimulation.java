@@ -0,0 +1,287 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import net.easecation.bedrockmotion.animator.Animator;
+import net.easecation.bedrockmotion.benchmark.support.BenchmarkFixtures;
+import net.easecation.bedrockmotion.benchmark.support.EntityTemplate;
+import net.easecation.bedrockmotion.benchmark.support.SimpleBoneModel;
+import net.easecation.bedrockmotion.controller.AnimationController;
+import net.easecation.bedrockmotion.controller.AnimationControllerInstance;
+import net.easecation.bedrockmotion.mocha.CompiledExpression;
+import net.easecation.bedrockmotion.pack.PackManager;
+import net.easecation.bedrockmotion.pack.definitions.AnimationDefinitions;
+import net.easecation.bedrockmotion.pack.definitions.EntityDefinitions;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Headless crowd load test: N entities built from {@code EntityDefinitions} (controllers and plain animations),
+ * driven with synthetic query values over simulated 20 TPS ticks on a single thread.
+ * <p>
+ * Reports p50/p99/max tick time, bytes allocated per tick and the GC pauses observed during the measured ticks.
+ * Run with {@code ./gradlew crowdSimulation -PcrowdArgs="--entities=10000 --ticks=1200"}.
+ * <p>
+ * Animators take their animation time from the wall clock, so simulated ticks advance queries by 50ms each while
+ * keyframe time advances in real time; this changes which keyframes are sampled, not the amount of work.
+ */
+public final class CrowdSimulation {
+    private static final float TICK_SECONDS = 0.05f;
+
+    private CrowdSimulation() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Options options = Options.parse(args);
+
+        final long loadStart = System.nanoTime();
+        final PackManager packManager = BenchmarkFixtures.packManager();
+        final List<EntityTemplate> templates = EntityTemplate.load(packManager);
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("No animated entity definitions found");
+        }
+        final List<SimulatedEntity> entities = new ArrayList<>(options.entities);
+        for (int i = 0; i < options.entities; i++) {
+            entities.add(new SimulatedEntity(templates.get(i % templates.size()), packManager, i, options.sneakPeriod));
+        }
+        System.out.printf(Locale.ROOT, "Spawned %d entities from %d templates %s in %.1f ms%n",
+                entities.size(), templates.size(), templates.stream().map(EntityTemplate::identifier).toList(),
+                (System.nanoTime() - loadStart) / 1e6);
+
+        for (int tick = 0; tick < options.warmupTicks; tick++) {
+            tickAll(entities, tick);
+        }
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final GcPauseRecorder gcPauses = GcPauseRecorder.install();
+
+        final long[] tickNanos = new long[options.ticks];
+        final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int tick = 0; tick < options.ticks; tick++) {
+            final long start = System.nanoTime();
+            tickAll(entities, options.warmupTicks + tick);
+            tickNanos[tick] = System.nanoTime() - start;
+        }
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        gcPauses.uninstall();
+
+        int transitions = 0;
+        for (SimulatedEntity entity : entities) {
+            transitions += entity.transitions;
+        }
+        report(options, tickNanos, allocated, gcPauses, transitions);
+    }
+
+    private static void tickAll(List<SimulatedEntity> entities, int tick) {
+        for (SimulatedEntity entity : entities) {
+            entity.tick(tick);
+        }
+    }
+
+    private static void report(Options options, long[] tickNanos, long allocated, GcPauseRecorder gcPauses, int transitions) {
+        final long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        final double budgetMs = TICK_SECONDS * 1000;
+
+        System.out.printf(Locale.ROOT, "Entities:          %d%n", options.entities);
+        System.out.printf(Locale.ROOT, "Measured ticks:    %d (after %d warmup)%n", options.ticks, options.warmupTicks);
+        System.out.printf(Locale.ROOT, "Tick p50:          %.3f ms%n", percentile(sorted, 0.50) / 1e6);
+        System.out.printf(Locale.ROOT, "Tick p99:          %.3f ms%n", percentile(sorted, 0.99) / 1e6);
+        System.out.printf(Locale.ROOT, "Tick max:          %.3f ms%n", sorted[sorted.length - 1] / 1e6);
+        System.out.printf(Locale.ROOT, "Ticks over %.0f ms: %d%n", budgetMs, countAbove(sorted, (long) (budgetMs * 1e6)));
+        System.out.printf(Locale.ROOT, "Allocated/tick:    %.1f KiB (%.0f B/entity)%n",
+                allocated / (double) options.ticks / 1024, allocated / (double) options.ticks / options.entities);
+        System.out.printf(Locale.ROOT, "Sneak toggles:     %d (each fires a controller transition)%n", transitions);
+        System.out.printf(Locale.ROOT, "GC pauses:         %d, total %d ms, max %d ms%n",
+                gcPauses.count(), gcPauses.totalMs(), gcPauses.maxMs());
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            System.out.printf(Locale.ROOT, "  %-24s %d collections, %d ms (whole run)%n",
+                    gc.getName(), gc.getCollectionCount(), gc.getCollectionTime());
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        final int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static int countAbove(long[] sorted, long threshold) {
+        int count = 0;
+        for (long value : sorted) {
+            if (value > threshold) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * One entity: its frame scope, bones, controllers and plain animators, as a proxy would hold them.
+     */
+    private static final class SimulatedEntity {
+        private final BenchmarkFixtures.EntityScope scope = new BenchmarkFixtures.EntityScope();
+        private final SimpleBoneModel model = new SimpleBoneModel(BenchmarkFixtures.HUMANOID_BONES);
+        private final List<AnimationControllerInstance> controllers = new ArrayList<>();
+        private final List<Animator> animators = new ArrayList<>();
+        // scripts.animate conditions, parallel to the lists above; null plays at full weight
+        private final List<CompiledExpression> controllerWeights = new ArrayList<>();
+        private final List<CompiledExpression> animatorWeights = new ArrayList<>();
+        private final float phase;
+        private final int sneakPeriod;
+        private boolean sneaking;
+        private int transitions;
+
+        SimulatedEntity(EntityTemplate template, PackManager packManager, int index, int sneakPeriod) throws IOException {
+            // Spread entities over time so their transitions do not all fire on the same tick
+            this.phase = (index * 7919 % 1000) / 10f;
+            this.sneakPeriod = sneakPeriod;
+            this.scope.update(phase, false);
+
+            final AnimationDefinitions animationDefinitions = packManager.getAnimationDefinitions();
+            for (EntityDefinitions.AnimateEntry entry : template.animate()) {
+                final String identifier = template.animations().get(entry.shortName());
+                if (identifier == null) {
+                    continue;
+                }
+                final CompiledExpression weight = entry.condition().isBlank() ? null
+                        : CompiledExpression.compile(entry.condition(), animationDefinitions.getParseCache());
+                final AnimationController controller = packManager.getAnimationControllerDefinitions().getControllers().get(identifier);
+                if (controller != null) {
+                    final AnimationControllerInstance instance = new AnimationControllerInstance(
+                            controller, template.animations(), animationDefinitions, scope);
+                    instance.setBaseScope(scope.scope);
+                    controllers.add(instance);
+                    controllerWeights.add(weight);
+                    continue;
+                }
+                final AnimationDefinitions.AnimationData data = animationDefinitions.getAnimations().get(identifier);
+                if (data != null) {
+                    final Animator animator = new Animator(scope, data);
+                    animator.setBaseScope(scope.scope);
+                    animators.add(animator);
+                    animatorWeights.add(weight);
+                }
+            }
+        }
+
+        void tick(int tick) {
+            final boolean sneakingNow = sneakPeriod > 0 && ((tick + (int) phase) / sneakPeriod) % 2 == 1;
+            if (sneakingNow != sneaking) {
+                sneaking = sneakingNow;
+                transitions++;
+            }
+            scope.update(phase + tick * TICK_SECONDS, sneaking);
+
+            model.resetAllBones();
+            for (int i = 0; i < controllers.size(); i++) {
+                final AnimationControllerInstance controller = controllers.get(i);
+                final CompiledExpression weight = controllerWeights.get(i);
+                if (weight != null) {
+                    controller.setControllerBlendWeight((float) weight.evalNumber(scope.scope));
+                }
+                controller.tick(scope.scope);
+                controller.animate(model);
+            }
+            for (int i = 0; i < animators.size(); i++) {
+                final Animator animator = animators.get(i);
+                final CompiledExpression weight = animatorWeights.get(i);
+                if (weight != null) {
+                    animator.setBlendWeight((float) weight.evalNumber(scope.scope));
+                }
+                try {
+                    animator.animate(model);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects individual GC pause durations from GC notifications while installed.
+     */
+    private static final class GcPauseRecorder {
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private final NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                final GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                // Concurrent cycles report their whole duration, not a pause
+                if (!info.getGcCause().equals("No GC") && !info.getGcAction().contains("concurrent")) {
+                    record(info.getGcInfo().getDuration());
+                }
+            }
+        };
+        private int count;
+        private long totalMs, maxMs;
+
+        static GcPauseRecorder install() {
+            final GcPauseRecorder recorder = new GcPauseRecorder();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(recorder.listener, null, null);
+                    recorder.emitters.add(emitter);
+                }
+            }
+            return recorder;
+        }
+
+        void uninstall() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (ListenerNotFoundException ignored) {
+                }
+            }
+        }
+
+        private synchronized void record(long durationMs) {
+            count++;
+            totalMs += durationMs;
+            maxMs = Math.max(maxMs, durationMs);
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized long totalMs() {
+            return totalMs;
+        }
+
+        synchronized long maxMs() {
+            return maxMs;
+        }
+    }
+
+    private record Options(int entities, int ticks, int warmupTicks, int sneakPeriod) {
+        static Options parse(String[] args) {
+            int entities = 10_000, ticks = 600, warmup = 200, sneakPeriod = 60;
+            for (String arg : args) {
+                final int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                final int value = Integer.parseInt(arg.substring(eq + 1));
+                switch (arg.substring(2, eq)) {
+                    case "entities" -> entities = value;
+                    case "ticks" -> ticks = value;
+                    case "warmup" -> warmup = value;
+                    case "sneak-period" -> sneakPeriod = value;
+                    default -> throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            if (entities <= 0 || ticks <= 0) {
+                throw new IllegalArgumentException("--entities and --ticks must be positive");
+            }
+            return new Options(entities, ticks, warmup, sneakPeriod);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import net.easecation.bedrockmotion.benchmark.support.BenchmarkFixtures;
+import net.easecation.bedrockmotion.mocha.MoLangEngine;
+import org.openjdk.jmh.annotations.*;
+import team.unnamed.mocha.parser.ast.Expression;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MoLangEngine#eval} on the three expression shapes that dominate entity packs.
+ * The {@code String} variants include parsing, the {@code parsed} variants measure interpretation only.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class MoLangEvalBenchmark {
+    private static final String LITERAL = "1.0";
+    private static final String QUERY = "query.is_sneaking ? query.modified_distance_moved * 0.5 : variable.tcos0";
+    private static final String MATH = "math.cos(query.life_time * 103.2) * 2.865 + math.clamp(query.target_x_rotation, -45, 45)";
+
+    private BenchmarkFixtures.EntityScope entity;
+    private List<Expression> parsedLiteral;
+    private List<Expression> parsedQuery;
+    private List<Expression> parsedMath;
+
+    @Setup
+    public void setup() throws IOException {
+        entity = new BenchmarkFixtures.EntityScope();
+        entity.update(12.5f, false);
+        parsedLiteral = MoLangEngine.parse(LITERAL);
+        parsedQuery = MoLangEngine.parse(QUERY);
+        parsedMath = MoLangEngine.parse(MATH);
+    }
+
+    @Benchmark
+    public Value literal() throws IOException {
+        return MoLangEngine.eval(entity.scope, LITERAL);
+    }
+
+    @Benchmark
+    public Value query() throws IOException {
+        return MoLangEngine.eval(entity.scope, QUERY);
+    }
+
+    @Benchmark
+    public Value math() throws IOException {
+        return MoLangEngine.eval(entity.scope, MATH);
+    }
+
+    @Benchmark
+    public Value parsedLiteral() {
+        return MoLangEngine.eval(entity.scope, parsedLiteral);
+    }
+
+    @Benchmark
+    public Value parsedQuery() {
+        return MoLangEngine.eval(entity.scope, parsedQuery);
+    }
+
+    @Benchmark
+    public Value parsedMath() {
+        return MoLangEngine.eval(entity.scope, parsedMath);
+    }
+}
@@ -0,0 +1,51 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import net.easecation.bedrockmotion.pack.PackManager;
+import net.easecation.bedrockmotion.pack.content.Content;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PackManager} construction on the bundled {@code vanilla.mcpack}: unzip plus parsing every definition type.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SingleShotTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class PackManagerBenchmark {
+    private byte[] vanillaZip;
+    private Content vanilla;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream is = PackManager.class.getResourceAsStream("/libs/vanilla_packs/vanilla.mcpack")) {
+            if (is == null) {
+                throw new IllegalStateException("vanilla.mcpack is missing from the classpath");
+            }
+            vanillaZip = is.readAllBytes();
+        }
+        vanilla = new Content(vanillaZip);
+    }
+
+    /**
+     * Unzip and parse, as done by {@link PackManager#PackManager(List)}.
+     */
+    @Benchmark
+    public PackManager fromZip() throws IOException {
+        return new PackManager(new Content(vanillaZip), List.of(), null);
+    }
+
+    /**
+     * Parse only, from an already unzipped pack.
+     */
+    @Benchmark
+    public PackManager fromContent() {
+        return new PackManager(vanilla, List.of(), null);
+    }
+}
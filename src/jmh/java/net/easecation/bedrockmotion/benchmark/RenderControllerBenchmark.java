@@ -0,0 +1,59 @@
+package net.easecation.bedrockmotion.benchmark;
+
+import net.easecation.bedrockmotion.benchmark.support.BenchmarkFixtures;
+import net.easecation.bedrockmotion.render.RenderControllerEvaluator;
+import org.cube.converter.data.bedrock.BedrockEntityData;
+import org.cube.converter.parser.bedrock.data.impl.BedrockEntityParser;
+import org.openjdk.jmh.annotations.*;
+import team.unnamed.mocha.runtime.value.MutableObjectBinding;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RenderControllerEvaluator#evaluate} for the vanilla pig, whose controller resolves a texture array
+ * indexed by a query.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class RenderControllerBenchmark {
+    private static final Map<String, String> INVERSE_GEOMETRY = Map.of("geometry.pig.v1.8", "default");
+    private static final Map<String, String> INVERSE_TEXTURE = Map.of(
+            "textures/entity/pig/pig", "default",
+            "textures/entity/pig/pig_saddle", "saddled");
+
+    private BenchmarkFixtures.EntityScope entity;
+    private BedrockEntityData pig;
+
+    @Setup
+    public void setup() {
+        pig = BedrockEntityParser.parse(BenchmarkFixtures.PIG_ENTITY_JSON);
+
+        entity = new BenchmarkFixtures.EntityScope();
+        final MutableObjectBinding geometry = new MutableObjectBinding();
+        geometry.set("default", Value.of("geometry.pig.v1.8"));
+        geometry.block();
+        final MutableObjectBinding texture = new MutableObjectBinding();
+        texture.set("default", Value.of("textures/entity/pig/pig"));
+        texture.set("saddled", Value.of("textures/entity/pig/pig_saddle"));
+        texture.block();
+        entity.scope.set("geometry", geometry);
+        entity.scope.set("texture", texture);
+
+        if (evaluate().isEmpty()) {
+            throw new IllegalStateException("Pig render controller did not resolve a model");
+        }
+    }
+
+    @Benchmark
+    public List<RenderControllerEvaluator.EvaluatedModel> evaluate() {
+        return RenderControllerEvaluator.evaluate(pig, entity.scope,
+                BenchmarkFixtures.packManager().getRenderControllerDefinitions(), INVERSE_GEOMETRY, INVERSE_TEXTURE);
+    }
+}
@@ -0,0 +1,212 @@
+package net.easecation.bedrockmotion.benchmark.support;
+
+import net.easecation.bedrockmotion.mocha.FrameScope;
+import net.easecation.bedrockmotion.model.AnimationEventListener;
+import net.easecation.bedrockmotion.pack.PackManager;
+import net.easecation.bedrockmotion.pack.content.Content;
+import team.unnamed.mocha.MochaEngine;
+import team.unnamed.mocha.runtime.Scope;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared fixtures: the bundled vanilla pack plus a small synthetic pack with an entity and animation
+ * controllers (the bundled pack ships animations and render controllers only).
+ */
+public final class BenchmarkFixtures {
+    public static final String ENTITY_IDENTIFIER = "bench:humanoid";
+    public static final String CONTROLLER = "controller.animation.bench.humanoid";
+    public static final String CROSSFADE_CONTROLLER = "controller.animation.bench.crossfade";
+
+    public static final List<String> HUMANOID_BONES = List.of(
+            "root", "waist", "body", "head", "hat", "cape",
+            "leftArm", "leftSleeve", "leftItem", "rightArm", "rightSleeve", "rightItem",
+            "leftLeg", "leftPants", "rightLeg", "rightPants", "jacket");
+
+    public static final Map<String, String> ENTITY_ANIMATIONS = Map.of(
+            "move", "animation.humanoid.move",
+            "bob", "animation.humanoid.bob",
+            "look_at_target", "animation.humanoid.look_at_target.default",
+            "sneaking", "animation.humanoid.sneaking",
+            "attack", "animation.humanoid.attack.rotations",
+            "controller", CONTROLLER);
+
+    private static final String CONTROLLERS_JSON = """
+            {
+              "format_version": "1.10.0",
+              "animation_controllers": {
+                "controller.animation.bench.humanoid": {
+                  "initial_state": "default",
+                  "states": {
+                    "default": {
+                      "animations": ["move", "bob", {"look_at_target": "query.is_sneaking ? 0.5 : 1.0"}],
+                      "transitions": [{"sneaking": "query.is_sneaking"}],
+                      "blend_transition": 0.2
+                    },
+                    "sneaking": {
+                      "animations": ["sneaking", "bob", "look_at_target"],
+                      "transitions": [{"default": "!query.is_sneaking"}],
+                      "blend_transition": 0.2
+                    }
+                  }
+                },
+                "controller.animation.bench.crossfade": {
+                  "initial_state": "default",
+                  "states": {
+                    "default": {
+                      "animations": ["move", "bob", "look_at_target"],
+                      "transitions": [{"sneaking": "query.is_sneaking"}],
+                      "blend_transition": 100000,
+                      "blend_via_shortest_path": true
+                    },
+                    "sneaking": {
+                      "animations": ["sneaking", "attack"],
+                      "transitions": [{"default": "!query.is_sneaking"}],
+                      "blend_transition": 100000,
+                      "blend_via_shortest_path": true
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String ENTITY_JSON = """
+            {
+              "format_version": "1.10.0",
+              "minecraft:client_entity": {
+                "description": {
+                  "identifier": "bench:humanoid",
+                  "materials": {"default": "entity_alphatest"},
+                  "textures": {"default": "textures/entity/steve"},
+                  "geometry": {"default": "geometry.humanoid.custom"},
+                  "animations": {
+                    "move": "animation.humanoid.move",
+                    "bob": "animation.humanoid.bob",
+                    "look_at_target": "animation.humanoid.look_at_target.default",
+                    "sneaking": "animation.humanoid.sneaking",
+                    "attack": "animation.humanoid.attack.rotations",
+                    "controller": "controller.animation.bench.humanoid"
+                  },
+                  "scripts": {"animate": ["controller"]},
+                  "render_controllers": ["controller.render.pig"]
+                }
+              }
+            }
+            """;
+
+    private static final String WALKER_ENTITY_JSON = """
+            {
+              "format_version": "1.10.0",
+              "minecraft:client_entity": {
+                "description": {
+                  "identifier": "bench:walker",
+                  "materials": {"default": "entity_alphatest"},
+                  "textures": {"default": "textures/entity/zombie/zombie"},
+                  "geometry": {"default": "geometry.humanoid.custom"},
+                  "animations": {
+                    "move": "animation.humanoid.move",
+                    "bob": "animation.humanoid.bob",
+                    "look_at_target": "animation.humanoid.look_at_target.default"
+                  },
+                  "scripts": {"animate": ["move", "bob", "look_at_target"]}
+                }
+              }
+            }
+            """;
+
+    public static final String PIG_ENTITY_JSON = """
+            {
+              "format_version": "1.10.0",
+              "minecraft:client_entity": {
+                "description": {
+                  "identifier": "minecraft:pig",
+                  "materials": {"default": "pig"},
+                  "textures": {
+                    "default": "textures/entity/pig/pig",
+                    "saddled": "textures/entity/pig/pig_saddle"
+                  },
+                  "geometry": {"default": "geometry.pig.v1.8"},
+                  "render_controllers": ["controller.render.pig"]
+                }
+              }
+            }
+            """;
+
+    private static final Scope STANDARD_SCOPE = MochaEngine.createStandard().scope();
+    private static PackManager packManager;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static synchronized PackManager packManager() {
+        if (packManager == null) {
+            packManager = new PackManager(List.of(syntheticPack()));
+        }
+        return packManager;
+    }
+
+    public static Content syntheticPack() {
+        final Content content = new Content();
+        content.putString("animation_controllers/bench.animation_controllers.json", CONTROLLERS_JSON);
+        content.putString("entity/bench_humanoid.entity.json", ENTITY_JSON);
+        content.putString("entity/bench_walker.entity.json", WALKER_ENTITY_JSON);
+        content.putString("entity/pig.entity.json", PIG_ENTITY_JSON);
+        return content;
+    }
+
+    public static Scope standardScope() {
+        return STANDARD_SCOPE.copy();
+    }
+
+    /**
+     * Per-entity MoLang state the way consumers hold it: one {@link FrameScope} reused and written by slot each tick.
+     */
+    @SuppressWarnings("UnstableApiUsage")
+    public static final class EntityScope implements AnimationEventListener {
+        private static final int LIFE_TIME = FrameScope.querySlot("life_time");
+        private static final int ANIM_TIME = FrameScope.querySlot("anim_time");
+        private static final int MODIFIED_DISTANCE_MOVED = FrameScope.querySlot("modified_distance_moved");
+        private static final int TARGET_X_ROTATION = FrameScope.querySlot("target_x_rotation");
+        private static final int TARGET_Y_ROTATION = FrameScope.querySlot("target_y_rotation");
+        private static final int IS_SNEAKING = FrameScope.querySlot("is_sneaking");
+        private static final int IS_SADDLED = FrameScope.querySlot("is_saddled");
+        private static final int TCOS0 = FrameScope.variableSlot("tcos0");
+        private static final int ATTACK_TIME = FrameScope.variableSlot("attack_time");
+
+        public final FrameScope scope = new FrameScope(standardScope());
+        public int timelineEvents;
+
+        public EntityScope() {
+            update(0, false);
+        }
+
+        /**
+         * Writes the synthetic inputs for one tick, the way a consumer's frame scope builder would.
+         */
+        public void update(float lifeTime, boolean sneaking) {
+            final double distance = lifeTime * 4.3;
+            scope.clearChanges();
+            scope.setQuery(LIFE_TIME, lifeTime);
+            scope.setQuery(ANIM_TIME, lifeTime);
+            scope.setQuery(MODIFIED_DISTANCE_MOVED, distance);
+            scope.setQuery(TARGET_X_ROTATION, Math.sin(lifeTime) * 20);
+            scope.setQuery(TARGET_Y_ROTATION, Math.cos(lifeTime) * 40);
+            scope.setQuery(IS_SNEAKING, sneaking);
+            scope.setQuery(IS_SADDLED, false);
+            scope.setVariable(TCOS0, Math.cos(distance * 38.17) * 80);
+            scope.setVariable(ATTACK_TIME, 0);
+        }
+
+        @Override
+        public void onTimelineEvent(List<String> expressions) {
+            timelineEvents++;
+        }
+
+        @Override
+        public Scope getEntityScope() {
+            return scope;
+        }
+    }
+}
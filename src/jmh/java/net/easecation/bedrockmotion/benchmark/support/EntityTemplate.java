@@ -0,0 +1,30 @@
+package net.easecation.bedrockmotion.benchmark.support;
+
+import net.easecation.bedrockmotion.pack.PackManager;
+import net.easecation.bedrockmotion.pack.definitions.EntityDefinitions;
+
+import java.util.*;
+
+/**
+ * Animation setup of an entity from {@code EntityDefinitions}: the short name map and the {@code scripts.animate} list.
+ *
+ * @param identifier the entity identifier
+ * @param animations short name -> animation or animation controller identifier
+ * @param animate    {@code scripts.animate} entries, with their blend weight condition
+ */
+public record EntityTemplate(String identifier, Map<String, String> animations, List<EntityDefinitions.AnimateEntry> animate) {
+
+    /**
+     * Templates for every entity in the pack manager that animates anything, sorted by identifier.
+     */
+    public static List<EntityTemplate> load(PackManager packManager) {
+        final Map<String, EntityTemplate> byIdentifier = new TreeMap<>();
+        for (EntityDefinitions.EntityDefinition definition : packManager.getEntityDefinitions().getEntities().values()) {
+            if (!definition.animate().isEmpty()) {
+                byIdentifier.put(definition.identifier(),
+                        new EntityTemplate(definition.identifier(), definition.animations(), definition.animate()));
+            }
+        }
+        return List.copyOf(byIdentifier.values());
+    }
+}
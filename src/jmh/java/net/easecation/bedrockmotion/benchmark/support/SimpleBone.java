@@ -0,0 +1,88 @@
+package net.easecation.bedrockmotion.benchmark.support;
+
+import net.easecation.bedrockmotion.model.IBoneTarget;
+import org.joml.Vector3f;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pure data bone, equivalent to the server-side adapter used by proxies.
+ */
+public class SimpleBone implements IBoneTarget {
+    private final String name;
+    private final Vector3f rotation = new Vector3f();
+    private final Vector3f offset = new Vector3f();
+    private float scaleX = 1, scaleY = 1, scaleZ = 1;
+    private final Map<String, IBoneTarget> children = new LinkedHashMap<>();
+
+    public SimpleBone(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Vector3f getRotation() {
+        return rotation;
+    }
+
+    @Override
+    public Vector3f getOffset() {
+        return offset;
+    }
+
+    @Override
+    public float getScaleX() {
+        return scaleX;
+    }
+
+    @Override
+    public float getScaleY() {
+        return scaleY;
+    }
+
+    @Override
+    public float getScaleZ() {
+        return scaleZ;
+    }
+
+    @Override
+    public void setScale(float x, float y, float z) {
+        this.scaleX = x;
+        this.scaleY = y;
+        this.scaleZ = z;
+    }
+
+    @Override
+    public void addOffset(Vector3f offset) {
+        this.offset.add(offset);
+    }
+
+    @Override
+    public void addRotation(Vector3f rotation) {
+        this.rotation.add(rotation);
+    }
+
+    @Override
+    public void addScale(float dx, float dy, float dz) {
+        this.scaleX += dx;
+        this.scaleY += dy;
+        this.scaleZ += dz;
+    }
+
+    @Override
+    public void resetToDefaultPose() {
+        rotation.set(0);
+        offset.set(0);
+        setScale(1, 1, 1);
+    }
+
+    @Override
+    public Map<String, IBoneTarget> getChildren() {
+        return children;
+    }
+}
@@ -0,0 +1,43 @@
+package net.easecation.bedrockmotion.benchmark.support;
+
+import net.easecation.bedrockmotion.model.IBoneModel;
+import net.easecation.bedrockmotion.model.IBoneTarget;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory bone model with a flat list of named bones.
+ */
+public class SimpleBoneModel implements IBoneModel {
+    private final List<IBoneTarget> bones = new ArrayList<>();
+    private final Map<String, IBoneTarget> index = new HashMap<>();
+
+    public SimpleBoneModel(Iterable<String> boneNames) {
+        for (String name : boneNames) {
+            final SimpleBone bone = new SimpleBone(name);
+            bones.add(bone);
+            index.put(name.toLowerCase(Locale.ROOT), bone);
+        }
+    }
+
+    @Override
+    public Map<String, IBoneTarget> getBoneIndex() {
+        return index;
+    }
+
+    @Override
+    public Iterable<IBoneTarget> getAllBones() {
+        return bones;
+    }
+
+    @Override
+    public void resetAllBones() {
+        for (IBoneTarget bone : bones) {
+            bone.resetToDefaultPose();
+        }
+    }
+}
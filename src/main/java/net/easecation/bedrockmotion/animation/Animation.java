@@ -4,6 +4,8 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -13,6 +15,7 @@ import net.easecation.bedrockmotion.animation.element.Cube;
 import net.easecation.bedrockmotion.util.JsonUtil;
 import net.easecation.bedrockmotion.util.mojangweirdformat.ValueOrValue;
 
+import java.io.IOException;
 import java.util.*;
 
 // https://bedrock.dev/docs/stable/Schemas
@@ -131,6 +134,156 @@ public class Animation {
         return animations;
     }
 
+    /**
+     * Streaming equivalent of {@link #parse(JsonObject)}: reads an animation file straight from the reader
+     * without building an intermediate JsonObject tree.
+     */
+    public static List<Animation> parse(final JsonReader reader) throws IOException {
+        // Keyed like the tree parser's JsonObject: a repeated key keeps its first position but takes the last value
+        final Map<String, Animation> animations = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("animations") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+
+            animations.clear();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String identifier = reader.nextName();
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    animations.remove(identifier);
+                    continue;
+                }
+                animations.put(identifier, parseAnimation(identifier, reader));
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return new ArrayList<>(animations.values());
+    }
+
+    private static Animation parseAnimation(final String identifier, final JsonReader reader) throws IOException {
+        final Animation animation = new Animation(identifier);
+        animation.setLoop(new ValueOrValue<>(false));
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "loop" -> {
+                    final JsonToken token = reader.peek();
+                    if (token == JsonToken.BOOLEAN) {
+                        animation.setLoop(new ValueOrValue<>(reader.nextBoolean()));
+                    } else if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+                        animation.setLoop(new ValueOrValue<>(reader.nextString()));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                case "start_delay" -> animation.setStartDelay(JsonUtil.readString(reader));
+                case "loop_delay" -> animation.setLoopDelay(JsonUtil.readString(reader));
+                case "anim_time_update" -> animation.setTimePassExpression(JsonUtil.readString(reader));
+                case "override_previous_animation" -> animation.setResetBeforePlay(JsonUtil.readBoolean(reader));
+                case "animation_length" -> animation.setAnimationLength(JsonUtil.readFloat(reader));
+                case "timeline" -> parseTimeline(animation, reader);
+                case "particle_effects" -> parseParticleEffects(animation, reader);
+                case "bones" -> {
+                    animation.getCubes().clear();
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        animation.getCubes().addAll(Cube.parse(reader));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return animation;
+    }
+
+    private static void parseTimeline(final Animation animation, final JsonReader reader) throws IOException {
+        animation.getTimeline().clear();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            if (!NumberUtils.isCreatable(key)) {
+                reader.skipValue();
+                continue;
+            }
+            final float timestamp = Float.parseFloat(key);
+
+            final JsonToken token = reader.peek();
+            if (token == JsonToken.STRING) {
+                animation.getTimeline().put(timestamp, Collections.singletonList(reader.nextString()));
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                animation.getTimeline().put(timestamp, JsonUtil.readStringSet(reader).stream().toList());
+            } else {
+                reader.skipValue();
+                animation.getTimeline().remove(timestamp);
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void parseParticleEffects(final Animation animation, final JsonReader reader) throws IOException {
+        animation.getParticleEffects().clear();
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            if (!NumberUtils.isCreatable(key)) {
+                reader.skipValue();
+                continue;
+            }
+            final float timestamp = Float.parseFloat(key);
+            final List<ParticleKeyframe> keyframes = new ArrayList<>();
+            final JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                keyframes.add(parseParticleKeyframe(reader));
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        keyframes.add(parseParticleKeyframe(reader));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+            if (!keyframes.isEmpty()) {
+                animation.getParticleEffects().put(timestamp, keyframes);
+            } else {
+                animation.getParticleEffects().remove(timestamp);
+            }
+        }
+        reader.endObject();
+    }
+
+    private static ParticleKeyframe parseParticleKeyframe(final JsonReader reader) throws IOException {
+        String effect = "", locator = "", preEffect = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "effect" -> effect = JsonUtil.readString(reader);
+                case "locator" -> locator = JsonUtil.readString(reader);
+                case "pre_effect_script" -> preEffect = JsonUtil.readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ParticleKeyframe(effect, locator, preEffect);
+    }
+
     private static ParticleKeyframe parseParticleKeyframe(JsonObject obj) {
         String effect = obj.has("effect") ? obj.get("effect").getAsString() : "";
         String locator = obj.has("locator") ? obj.get("locator").getAsString() : "";
@@ -3,6 +3,8 @@ package net.easecation.bedrockmotion.animation.element;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -13,9 +15,13 @@ import net.easecation.bedrockmotion.animation.element.timestamp.SimpleTimeStamp;
 import net.easecation.bedrockmotion.util.JsonUtil;
 import net.easecation.bedrockmotion.util.mojangweirdformat.ValueOrValue;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 @RequiredArgsConstructor
@@ -63,6 +69,100 @@ public final class Cube {
         return cubes;
     }
 
+    /**
+     * Streaming equivalent of {@link #parse(JsonObject)}, reading the {@code bones} object of an animation.
+     */
+    public static List<Cube> parse(final JsonReader reader) throws IOException {
+        // Keyed like the tree parser's JsonObject: a repeated key keeps its first position but takes the last value
+        final Map<String, Cube> cubes = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String identifier = reader.nextName();
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                cubes.remove(identifier);
+                continue;
+            }
+            final Cube cube = new Cube(identifier);
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "relative_to" -> {
+                        cube.setRelativeTo("");
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("rotation")) {
+                                cube.setRelativeTo(JsonUtil.readString(reader));
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    case "position" -> cube.setPosition(parseValueOrValue3(reader));
+                    case "rotation" -> cube.setRotation(parseValueOrValue3(reader));
+                    case "scale" -> cube.setScale(parseValueOrValue3(reader));
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            cubes.put(identifier, cube);
+        }
+        reader.endObject();
+
+        return new ArrayList<>(cubes.values());
+    }
+
+    private static ValueOrValue<?> parseValueOrValue3(final JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NUMBER:
+                return new ValueOrValue<>(Float.parseFloat(reader.nextString()));
+            case STRING:
+                return new ValueOrValue<>(reader.nextString());
+            case BEGIN_ARRAY:
+                return new ValueOrValue<>(JsonUtil.readStringArray3(reader));
+            case BEGIN_OBJECT:
+                break;
+            default:
+                reader.skipValue();
+                return null;
+        }
+
+        final Map<Float, ValueOrValue<?>> timestamps = new TreeMap<>();
+        // Same as the tree parser: a malformed keyframe invalidates the whole channel, unless a repeated key
+        // replaces it, since a JsonObject only keeps the last value of a key
+        final Set<String> malformed = new HashSet<>();
+        boolean empty = true;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String string = reader.nextName();
+            empty = false;
+            if (!NumberUtils.isCreatable(string)) {
+                reader.skipValue();
+                continue;
+            }
+
+            final float timestamp = Float.parseFloat(string);
+            final JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_ARRAY) {
+                timestamps.put(timestamp, new ValueOrValue<>(new SimpleTimeStamp(timestamp, JsonUtil.readStringArray3(reader))));
+                malformed.remove(string);
+            } else if (token == JsonToken.BEGIN_OBJECT) {
+                timestamps.put(timestamp, new ValueOrValue<>(ComplexTimeStamp.parse(timestamp, reader)));
+                malformed.remove(string);
+            } else {
+                reader.skipValue();
+                malformed.add(string);
+            }
+        }
+        reader.endObject();
+
+        // An object without any numeric key is an empty channel, not a missing one
+        return !empty && malformed.isEmpty() ? new ValueOrValue<>(timestamps) : null;
+    }
+
     private static ValueOrValue<?> parseValueOrValue3(final JsonElement element) {
         if (element.isJsonPrimitive()) {
             final JsonPrimitive primitive = element.getAsJsonPrimitive();
@@ -1,8 +1,11 @@
 package net.easecation.bedrockmotion.animation.element.timestamp;
 
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import net.easecation.bedrockmotion.util.JsonUtil;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -14,6 +17,30 @@ public record ComplexTimeStamp(float timestamp, String lerpMode, String[] pre, S
                 object.has("post") ? JsonUtil.jsonArrayToStringArray(object.getAsJsonArray("post")) : null);
     }
 
+    public static ComplexTimeStamp parse(final float timestamp, final JsonReader reader) throws IOException {
+        String lerpMode = "catmullrom";
+        String[] pre = null, post = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "lerp_mode" -> lerpMode = JsonUtil.readString(reader).toLowerCase(Locale.ROOT);
+                case "pre" -> pre = readVector(reader);
+                case "post" -> post = readVector(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new ComplexTimeStamp(timestamp, lerpMode, pre, post);
+    }
+
+    private static String[] readVector(final JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return null;
+        }
+        return JsonUtil.readStringArray3(reader);
+    }
+
     @Override
     public String toString() {
         return "ComplexTimeStamp{" +
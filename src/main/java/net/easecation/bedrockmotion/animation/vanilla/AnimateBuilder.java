@@ -4,6 +4,8 @@ import net.easecation.bedrockmotion.animation.Animation;
 import net.easecation.bedrockmotion.animation.element.Cube;
 import net.easecation.bedrockmotion.animation.element.timestamp.ComplexTimeStamp;
 import net.easecation.bedrockmotion.animation.element.timestamp.SimpleTimeStamp;
+import net.easecation.bedrockmotion.mocha.MoLangEngine;
+import net.easecation.bedrockmotion.mocha.ParseCache;
 import net.easecation.bedrockmotion.util.mojangweirdformat.ValueOrValue;
 
 import java.util.*;
@@ -12,7 +14,17 @@ import static net.easecation.bedrockmotion.animation.vanilla.AnimateTransformati
 import static net.easecation.bedrockmotion.animation.vanilla.AnimateTransformation.*;
 
 public class AnimateBuilder {
+    /**
+     * Builds through the engine-wide parse cache.
+     */
     public static VBUAnimation build(final Animation animation) {
+        return build(animation, MoLangEngine.getParseCache());
+    }
+
+    /**
+     * @param cache parse cache the keyframe expressions are compiled through, e.g. the owning pack manager's
+     */
+    public static VBUAnimation build(final Animation animation, final ParseCache cache) {
         float length = animation.getAnimationLength();
         if (length == -1) {
             float largestTimeStamp = 0;
@@ -63,13 +75,13 @@ public class AnimateBuilder {
         final VBUAnimation.Builder builder = VBUAnimation.Builder.create(length);
         for (Cube cube : animation.getCubes()) {
             if (cube.getPosition() != null) {
-                build(builder, cube.getIdentifier(), OFFSET, cube.getPosition().getValue());
+                build(builder, cube.getIdentifier(), OFFSET, cube.getPosition().getValue(), cache);
             }
             if (cube.getRotation() != null) {
-                build(builder, cube.getIdentifier(), ROTATE, cube.getRotation().getValue());
+                build(builder, cube.getIdentifier(), ROTATE, cube.getRotation().getValue(), cache);
             }
             if (cube.getScale() != null) {
-                build(builder, cube.getIdentifier(), SCALE, cube.getScale().getValue());
+                build(builder, cube.getIdentifier(), SCALE, cube.getScale().getValue(), cache);
             }
         }
 
@@ -81,7 +93,8 @@ public class AnimateBuilder {
     }
 
     @SuppressWarnings("unchecked")
-    private static void build(final VBUAnimation.Builder builder, final String name, final Target target, final Object object) {
+    private static void build(final VBUAnimation.Builder builder, final String name, final Target target, final Object object,
+                              final ParseCache cache) {
         if (object instanceof TreeMap<?, ?> rawMap) {
             if (rawMap.isEmpty()) {
                 return;
@@ -94,7 +107,7 @@ public class AnimateBuilder {
                 float timestamp = entry.getKey();
 
                 if (entry.getValue().getValue() instanceof SimpleTimeStamp simple) {
-                    frameList.add(new VBUKeyFrame(timestamp, simple.value(), Interpolations.CUBIC));
+                    frameList.add(new VBUKeyFrame(timestamp, simple.value(), Interpolations.CUBIC, cache));
                 } else if (entry.getValue().getValue() instanceof ComplexTimeStamp complex) {
                     Interpolation interpolation;
                     switch (complex.lerpMode().toLowerCase(Locale.ROOT)) {
@@ -111,7 +124,7 @@ public class AnimateBuilder {
                     if (post == null) post = pre;
                     if (pre == null) continue;
 
-                    frameList.add(new VBUKeyFrame(timestamp, pre, post, hasSeparate, interpolation));
+                    frameList.add(new VBUKeyFrame(timestamp, pre, post, hasSeparate, interpolation, cache));
                 }
             }
 
@@ -121,7 +134,7 @@ public class AnimateBuilder {
 
             builder.addBoneAnimation(name, new AnimateTransformation(target, frameList.toArray(new VBUKeyFrame[0])));
         } else {
-            builder.addBoneAnimation(name, new AnimateTransformation(target, new VBUKeyFrame[] {new VBUKeyFrame(0, get(object), Interpolations.CUBIC)}));
+            builder.addBoneAnimation(name, new AnimateTransformation(target, new VBUKeyFrame[] {new VBUKeyFrame(0, get(object), Interpolations.CUBIC, cache)}));
         }
     }
 
@@ -1,6 +1,8 @@
 package net.easecation.bedrockmotion.animation.vanilla;
 
 import net.easecation.bedrockmotion.model.IBoneTarget;
+import net.easecation.bedrockmotion.mocha.CompiledExpression;
+import net.easecation.bedrockmotion.mocha.ExpressionKind;
 import net.easecation.bedrockmotion.mocha.MoLangEngine;
 import net.easecation.bedrockmotion.util.MathUtil;
 import org.joml.Vector3f;
@@ -9,21 +11,48 @@ import team.unnamed.mocha.runtime.Scope;
 import java.io.IOException;
 
 // Taken from vanilla Transformation, adapted for IBoneTarget.
-public record AnimateTransformation(Target target, VBUKeyFrame[] keyframes) {
+// timeOnly: every keyframe value is constant or depends only on anim/life time, so the track can be shared
+public record AnimateTransformation(Target target, VBUKeyFrame[] keyframes, boolean timeOnly) {
     // Static temp vectors for interpolation (single-threaded usage assumed)
     private static final Vector3f TEMP_V0 = new Vector3f();
     private static final Vector3f TEMP_V1 = new Vector3f();
     private static final Vector3f TEMP_V2 = new Vector3f();
     private static final Vector3f TEMP_V3 = new Vector3f();
 
+    public AnimateTransformation(Target target, VBUKeyFrame[] keyframes) {
+        this(target, keyframes, isTimeOnly(keyframes));
+    }
+
+    private static boolean isTimeOnly(VBUKeyFrame[] keyframes) {
+        for (VBUKeyFrame keyframe : keyframes) {
+            if (!isTimeOnly(keyframe.preExpressions(), keyframe.preConstants())
+                    || !isTimeOnly(keyframe.postExpressions(), keyframe.postConstants())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTimeOnly(CompiledExpression[] expressions, float[] constants) {
+        for (int i = 0; i < expressions.length; i++) {
+            if (!Float.isNaN(constants[i])) {
+                continue;
+            }
+            if (expressions[i] == null || expressions[i].kind().compareTo(ExpressionKind.TIME_ONLY) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static class Interpolations {
         public static final Interpolation LINEAR = (scope, dest, delta, keyframes, start, end, scale) -> {
-            eval(scope, keyframes[start].postTarget(), TEMP_V1);
-            eval(scope, keyframes[end].preTarget(), TEMP_V2);
+            post(scope, keyframes[start], TEMP_V1);
+            pre(scope, keyframes[end], TEMP_V2);
             return TEMP_V1.lerp(TEMP_V2, delta, dest).mul(scale);
         };
         public static final Interpolation STEP = (scope, dest, delta, keyframes, start, end, scale) -> {
-            eval(scope, keyframes[start].postTarget(), dest);
+            post(scope, keyframes[start], dest);
             dest.mul(scale);
             return dest;
         };
@@ -32,15 +61,15 @@ public record AnimateTransformation(Target target, VBUKeyFrame[] keyframes) {
             boolean hasBefore = start > 0 && !keyframes[start].hasSeparatePrePost();
             boolean hasAfter = end < keyframes.length - 1 && !keyframes[end].hasSeparatePrePost();
 
-            eval(scope, keyframes[start].postTarget(), TEMP_V1);
-            eval(scope, keyframes[end].preTarget(), TEMP_V2);
+            post(scope, keyframes[start], TEMP_V1);
+            pre(scope, keyframes[end], TEMP_V2);
             if (hasBefore) {
-                eval(scope, keyframes[start - 1].postTarget(), TEMP_V0);
+                post(scope, keyframes[start - 1], TEMP_V0);
             } else {
                 TEMP_V0.set(TEMP_V1);
             }
             if (hasAfter) {
-                eval(scope, keyframes[end + 1].preTarget(), TEMP_V3);
+                pre(scope, keyframes[end + 1], TEMP_V3);
             } else {
                 TEMP_V3.set(TEMP_V2);
             }
@@ -54,12 +83,21 @@ public record AnimateTransformation(Target target, VBUKeyFrame[] keyframes) {
         };
     }
 
-    private static void eval(Scope scope, String[] molang3, Vector3f dest) {
+    private static void pre(Scope scope, VBUKeyFrame keyframe, Vector3f dest) {
+        eval(scope, keyframe.preTarget(), keyframe.preConstants(), keyframe.preExpressions(), dest);
+    }
+
+    private static void post(Scope scope, VBUKeyFrame keyframe, Vector3f dest) {
+        eval(scope, keyframe.postTarget(), keyframe.postConstants(), keyframe.postExpressions(), dest);
+    }
+
+    // Constant axes (NaN = evaluate) were folded and the others compiled when the keyframe was built
+    private static void eval(Scope scope, String[] molang3, float[] constants, CompiledExpression[] expressions, Vector3f dest) {
         try {
             dest.set(
-                    (float) MoLangEngine.eval(scope, molang3[0]).getAsNumber(),
-                    (float) MoLangEngine.eval(scope, molang3[1]).getAsNumber(),
-                    (float) MoLangEngine.eval(scope, molang3[2]).getAsNumber()
+                    axis(scope, molang3, constants, expressions, 0),
+                    axis(scope, molang3, constants, expressions, 1),
+                    axis(scope, molang3, constants, expressions, 2)
             );
         } catch (IOException e) {
             e.printStackTrace();
@@ -67,6 +105,16 @@ public record AnimateTransformation(Target target, VBUKeyFrame[] keyframes) {
         }
     }
 
+    private static float axis(Scope scope, String[] molang3, float[] constants, CompiledExpression[] expressions, int axis) throws IOException {
+        final float constant = constants[axis];
+        if (!Float.isNaN(constant)) {
+            return constant;
+        }
+        final CompiledExpression expression = expressions[axis];
+        // An axis that did not parse is parsed again, and fails and is reported, every frame
+        return (float) (expression != null ? expression.evalNumber(scope) : MoLangEngine.eval(scope, molang3[axis]).getAsNumber());
+    }
+
     public static class Targets {
         public static final Target OFFSET = (bone, vec3, weight) -> bone.addOffset(vec3);
         public static final Target ROTATE = (bone, vec3, weight) -> bone.addRotation(vec3);
@@ -1,8 +1,11 @@
 package net.easecation.bedrockmotion.animation.vanilla;
 
 import net.easecation.bedrockmotion.animation.Animation;
+import net.easecation.bedrockmotion.metrics.Metrics;
+import net.easecation.bedrockmotion.model.BoneSlots;
 import net.easecation.bedrockmotion.model.IBoneModel;
 import net.easecation.bedrockmotion.model.IBoneTarget;
+import net.easecation.bedrockmotion.model.PoseHash;
 import net.easecation.bedrockmotion.util.MathUtil;
 import org.joml.Vector3f;
 import team.unnamed.mocha.runtime.Scope;
@@ -12,54 +15,147 @@ import java.util.Locale;
 import java.util.Map;
 
 public class AnimationHelper {
-    public static void animate(Scope scope, IBoneModel model, VBUAnimation animation, long runningTime, float scale, Vector3f tempVec,
+    public static long animate(Scope scope, IBoneModel model, VBUAnimation animation, long runningTime, float scale, Vector3f tempVec,
                                Map<String, IBoneTarget> boneIndex) {
+        return animate(scope, model, animation, runningTime, scale, tempVec, boneIndex, null);
+    }
+
+    public static long animate(Scope scope, IBoneModel model, VBUAnimation animation, long runningTime, float scale, Vector3f tempVec,
+                               Map<String, IBoneTarget> boneIndex, SharedPoseCache poseCache) {
+        return animate(scope, model, animation, runningTime, scale, tempVec, boneIndex, poseCache, TrackFilter.ALL);
+    }
+
+    public static long animate(Scope scope, IBoneModel model, VBUAnimation animation, long runningTime, float scale, Vector3f tempVec,
+                               Map<String, IBoneTarget> boneIndex, SharedPoseCache poseCache, TrackFilter filter) {
+        return animate(scope, model, animation, runningTime, scale, tempVec, boneIndex, poseCache, filter, null);
+    }
+
+    /**
+     * @param poseCache if not null, time-only tracks are taken from (or computed into) this cache
+     * @param filter    tracks to sample; the others are left untouched
+     * @param slots     if not null, bones are resolved through its cached binding (no name lookups), tracks of bones outside
+     *                  its needed mask are skipped and written bones are recorded
+     * @return {@link PoseHash} of the values written, equal between two calls that wrote the same pose
+     */
+    public static long animate(Scope scope, IBoneModel model, VBUAnimation animation, long runningTime, float scale, Vector3f tempVec,
+                               Map<String, IBoneTarget> boneIndex, SharedPoseCache poseCache, TrackFilter filter, BoneSlots slots) {
         float g = AnimationHelper.getRunningSeconds(animation, runningTime);
         Map<String, IBoneTarget> index = boneIndex != null ? boneIndex : model.getBoneIndex();
+        int writes = 0;
+        long hash = PoseHash.SEED;
 
+        float[] shared = null;
+        if (poseCache != null && filter != TrackFilter.QUERY_DEPENDENT) {
+            final SharedPoseCache.PoseTable table = poseCache.table(animation);
+            if (table != null) {
+                final int bucket = poseCache.bucket(g);
+                shared = table.find(bucket);
+                if (shared == null) {
+                    shared = table.claim(bucket);
+                    fillShared(scope, animation, g, tempVec, shared);
+                }
+            }
+        }
+
+        final int[] binding = slots != null ? slots.bind(animation.boneAnimations()) : null;
+        int track = 0, boneNumber = 0;
         for (Map.Entry<String, List<AnimateTransformation>> entry : animation.boneAnimations().entrySet()) {
-            IBoneTarget bone = index.get(entry.getKey().toLowerCase(Locale.ROOT));
+            List<AnimateTransformation> list = entry.getValue();
+            final int slot = binding != null ? binding[boneNumber++] : -1;
+            // Bones outside the needed mask are skipped like missing ones
+            IBoneTarget bone = binding != null
+                    ? (slot >= 0 && slots.isNeeded(slot) ? slots.bone(slot) : null)
+                    : index.get(entry.getKey().toLowerCase(Locale.ROOT));
             if (bone == null) {
+                track += list.size();
                 continue;
             }
-            List<AnimateTransformation> list = entry.getValue();
             for (AnimateTransformation transformation : list) {
-                VBUKeyFrame[] lvs = transformation.keyframes();
-                int i = Math.max(0, MathUtil.binarySearch(0, lvs.length, idx -> {
-                    if (lvs[idx] == null) {
-                        return false;
-                    }
-
-                    return g <= lvs[idx].timestamp();
-                }) - 1);
-                int j = Math.min(lvs.length - 1, i + 1);
-                if (lvs[i] == null || lvs[j] == null) {
+                final int base = track++ * 3;
+                if (!filter.accepts(transformation)) {
                     continue;
                 }
-
-                VBUKeyFrame lv = lvs[i];
-                VBUKeyFrame lv2 = lvs[j];
-                float h = g - lv.timestamp();
-                float k = j != i ? MathUtil.clamp(h / (lv2.timestamp() - lv.timestamp()), 0.0f, 1.0f) : 1F;
-
-                // Select interpolation type following Blockbench logic:
-                // step takes priority, then catmullrom if either side uses it
-                AnimateTransformation.Interpolation interp;
-                if (lv.interpolation() == AnimateTransformation.Interpolations.STEP) {
-                    interp = AnimateTransformation.Interpolations.STEP;
-                } else if (lv.interpolation() == AnimateTransformation.Interpolations.CUBIC
-                        || lv2.interpolation() == AnimateTransformation.Interpolations.CUBIC) {
-                    interp = AnimateTransformation.Interpolations.CUBIC;
-                } else {
-                    interp = lv2.interpolation();
+                if (shared != null && transformation.timeOnly()) {
+                    tempVec.set(shared[base], shared[base + 1], shared[base + 2]).mul(scale);
+                } else if (!sample(scope, transformation, g, scale, tempVec)) {
+                    continue;
                 }
-                interp.apply(scope, tempVec, k, lvs, i, j, scale);
                 transformation.target().apply(bone, tempVec, scale);
+                if (slot >= 0) {
+                    slots.markWritten(slot);
+                }
+                hash = PoseHash.mix(hash, base, tempVec);
+                writes++;
             }
         }
+        if (Metrics.isEnabled()) {
+            Metrics.get().bonesWritten(writes);
+        }
+        return hash;
+    }
+
+    /**
+     * Evaluates every time-only track at weight 1, including tracks of bones this entity's model does not have.
+     */
+    private static void fillShared(Scope scope, VBUAnimation animation, float g, Vector3f tempVec, float[] shared) {
+        int track = 0;
+        for (List<AnimateTransformation> list : animation.boneAnimations().values()) {
+            for (AnimateTransformation transformation : list) {
+                final int base = track++ * 3;
+                if (!transformation.timeOnly()) {
+                    continue;
+                }
+                if (!sample(scope, transformation, g, 1.0f, tempVec)) {
+                    // Missing keyframes: the track contributes nothing, like the unshared path
+                    tempVec.set(transformation.target() == AnimateTransformation.Targets.SCALE ? 1 : 0);
+                }
+                shared[base] = tempVec.x;
+                shared[base + 1] = tempVec.y;
+                shared[base + 2] = tempVec.z;
+            }
+        }
+    }
+
+    /**
+     * Interpolates one track at time {@code g} into {@code dest}, scaled by {@code scale}.
+     *
+     * @return false if the track has no keyframes to interpolate at this time
+     */
+    static boolean sample(Scope scope, AnimateTransformation transformation, float g, float scale, Vector3f dest) {
+        VBUKeyFrame[] lvs = transformation.keyframes();
+        int i = Math.max(0, MathUtil.binarySearch(0, lvs.length, idx -> {
+            if (lvs[idx] == null) {
+                return false;
+            }
+
+            return g <= lvs[idx].timestamp();
+        }) - 1);
+        int j = Math.min(lvs.length - 1, i + 1);
+        if (lvs[i] == null || lvs[j] == null) {
+            return false;
+        }
+
+        VBUKeyFrame lv = lvs[i];
+        VBUKeyFrame lv2 = lvs[j];
+        float h = g - lv.timestamp();
+        float k = j != i ? MathUtil.clamp(h / (lv2.timestamp() - lv.timestamp()), 0.0f, 1.0f) : 1F;
+
+        // Select interpolation type following Blockbench logic:
+        // step takes priority, then catmullrom if either side uses it
+        AnimateTransformation.Interpolation interp;
+        if (lv.interpolation() == AnimateTransformation.Interpolations.STEP) {
+            interp = AnimateTransformation.Interpolations.STEP;
+        } else if (lv.interpolation() == AnimateTransformation.Interpolations.CUBIC
+                || lv2.interpolation() == AnimateTransformation.Interpolations.CUBIC) {
+            interp = AnimateTransformation.Interpolations.CUBIC;
+        } else {
+            interp = lv2.interpolation();
+        }
+        interp.apply(scope, dest, k, lvs, i, j, scale);
+        return true;
     }
 
-    private static float getRunningSeconds(VBUAnimation animation, long runningTime) {
+    static float getRunningSeconds(VBUAnimation animation, long runningTime) {
         float f = (float)runningTime / 1000.0f;
         if (!animation.looping() || animation.lengthInSeconds() <= 0) {
             return f;
@@ -0,0 +1,201 @@
+package net.easecation.bedrockmotion.animation.vanilla;
+
+import lombok.Getter;
+import net.easecation.bedrockmotion.metrics.Metrics;
+import net.easecation.bedrockmotion.model.BoneSlots;
+import net.easecation.bedrockmotion.model.IBoneTarget;
+import net.easecation.bedrockmotion.model.PoseHash;
+import org.joml.Vector3f;
+import team.unnamed.mocha.runtime.Scope;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An animation whose keyframes are all constant, pre-sampled at a fixed rate into one dense float table per track.
+ * Sampling at runtime is a table lookup and a linear interpolation instead of keyframe search, catmull-rom and
+ * MoLang evaluation.
+ * <p>
+ * {@link #bake} checks the table against the exact evaluator between samples and refuses animations whose error
+ * exceeds the bound (e.g. step keyframes, or curves too sharp for the rate).
+ */
+public final class BakedAnimation {
+    // Points checked between two samples when measuring the error
+    private static final int ERROR_CHECKS = 4;
+
+    @Getter
+    private final VBUAnimation animation;
+    private final float sampleRate;
+    private final int frames;
+    private final String[] boneNames;
+    private final AnimateTransformation.Target[] targets;
+    // Per track: frames * 3 values at weight 1
+    private final float[][] values;
+    @Getter
+    private final float maxError;
+
+    private BakedAnimation(final VBUAnimation animation, final float sampleRate, final int frames, final String[] boneNames,
+                           final AnimateTransformation.Target[] targets, final float[][] values, final float maxError) {
+        this.animation = animation;
+        this.sampleRate = sampleRate;
+        this.frames = frames;
+        this.boneNames = boneNames;
+        this.targets = targets;
+        this.values = values;
+        this.maxError = maxError;
+    }
+
+    /**
+     * Bakes an animation.
+     *
+     * @return the baked animation, or null if a keyframe is not constant, a track has missing keyframes,
+     * or interpolating the table deviates from the exact evaluator by more than {@code settings.maxError()}
+     */
+    public static BakedAnimation bake(final VBUAnimation animation, final Settings settings) {
+        int tracks = 0;
+        for (List<AnimateTransformation> list : animation.boneAnimations().values()) {
+            for (AnimateTransformation transformation : list) {
+                if (!isConstant(transformation)) {
+                    return null;
+                }
+                tracks++;
+            }
+        }
+        if (tracks == 0) {
+            return null;
+        }
+
+        final float rate = settings.sampleRate();
+        final int frames = Math.max(1, (int) Math.ceil(animation.lengthInSeconds() * rate)) + 1;
+        final String[] boneNames = new String[tracks];
+        final AnimateTransformation.Target[] targets = new AnimateTransformation.Target[tracks];
+        final float[][] values = new float[tracks][];
+        // Constant keyframes never read the scope
+        final Scope scope = Scope.create();
+        final Vector3f exact = new Vector3f();
+        float maxError = 0;
+
+        int track = 0;
+        for (Map.Entry<String, List<AnimateTransformation>> entry : animation.boneAnimations().entrySet()) {
+            for (AnimateTransformation transformation : entry.getValue()) {
+                final float[] table = new float[frames * 3];
+                for (int frame = 0; frame < frames; frame++) {
+                    if (!AnimationHelper.sample(scope, transformation, frame / rate, 1.0f, exact)) {
+                        return null;
+                    }
+                    table[frame * 3] = exact.x;
+                    table[frame * 3 + 1] = exact.y;
+                    table[frame * 3 + 2] = exact.z;
+                }
+                final Vector3f baked = new Vector3f();
+                for (int frame = 0; frame < frames - 1; frame++) {
+                    for (int check = 1; check <= ERROR_CHECKS; check++) {
+                        final float time = (frame + check / (ERROR_CHECKS + 1f)) / rate;
+                        AnimationHelper.sample(scope, transformation, time, 1.0f, exact);
+                        lerp(table, frames, time * rate, baked);
+                        maxError = Math.max(maxError, Math.max(Math.abs(exact.x - baked.x),
+                                Math.max(Math.abs(exact.y - baked.y), Math.abs(exact.z - baked.z))));
+                        if (maxError > settings.maxError()) {
+                            return null;
+                        }
+                    }
+                }
+                boneNames[track] = entry.getKey().toLowerCase(Locale.ROOT);
+                targets[track] = transformation.target();
+                values[track] = table;
+                track++;
+            }
+        }
+        return new BakedAnimation(animation, rate, frames, boneNames, targets, values, maxError);
+    }
+
+    private static boolean isConstant(final AnimateTransformation transformation) {
+        for (VBUKeyFrame keyframe : transformation.keyframes()) {
+            if (keyframe == null) {
+                return false;
+            }
+            for (int i = 0; i < 3; i++) {
+                if (Float.isNaN(keyframe.preConstants()[i]) || Float.isNaN(keyframe.postConstants()[i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the pose at {@code runningTime} ms, like {@link AnimationHelper#animate} does for the source animation.
+     *
+     * @return {@link PoseHash} of the values written
+     */
+    public long apply(final Map<String, IBoneTarget> boneIndex, final long runningTime, final float scale, final Vector3f tempVec) {
+        return this.apply(boneIndex, runningTime, scale, tempVec, TrackFilter.ALL, null);
+    }
+
+    /**
+     * Every track of a baked animation is constant, so it is applied entirely or, for
+     * {@link TrackFilter#QUERY_DEPENDENT}, not at all.
+     *
+     * @param slots if not null, bones are resolved through it, skipped outside its needed mask and recorded as written
+     */
+    public long apply(final Map<String, IBoneTarget> boneIndex, final long runningTime, final float scale, final Vector3f tempVec,
+                      final TrackFilter filter, final BoneSlots slots) {
+        if (!filter.acceptsBaked()) {
+            return PoseHash.SEED;
+        }
+        final float position = AnimationHelper.getRunningSeconds(this.animation, runningTime) * this.sampleRate;
+        int writes = 0;
+        long hash = PoseHash.SEED;
+        for (int track = 0; track < this.values.length; track++) {
+            final IBoneTarget bone;
+            if (slots != null) {
+                final int slot = slots.slotOf(this.boneNames[track]);
+                if (slot < 0 || !slots.isNeeded(slot)) {
+                    continue;
+                }
+                bone = slots.bone(slot);
+                slots.markWritten(slot);
+            } else {
+                bone = boneIndex.get(this.boneNames[track]);
+                if (bone == null) {
+                    continue;
+                }
+            }
+            lerp(this.values[track], this.frames, position, tempVec).mul(scale);
+            this.targets[track].apply(bone, tempVec, scale);
+            hash = PoseHash.mix(hash, track * 3, tempVec);
+            writes++;
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.get().bonesWritten(writes);
+        }
+        return hash;
+    }
+
+    private static Vector3f lerp(final float[] table, final int frames, final float position, final Vector3f dest) {
+        final float clamped = Math.max(0, Math.min(position, frames - 1));
+        // frames >= 2, see bake()
+        final int frame = Math.min((int) clamped, frames - 2);
+        final float t = clamped - frame;
+        final int a = frame * 3, b = a + 3;
+        return dest.set(
+                table[a] + (table[b] - table[a]) * t,
+                table[a + 1] + (table[b + 1] - table[a + 1]) * t,
+                table[a + 2] + (table[b + 2] - table[a + 2]) * t);
+    }
+
+    /**
+     * @param sampleRate samples per second of animation time
+     * @param maxError   largest accepted difference to the exact evaluator, per channel (degrees, pixels or scale)
+     */
+    public record Settings(float sampleRate, float maxError) {
+        public static final Settings DEFAULT = new Settings(60, 0.1f);
+
+        public Settings {
+            if (sampleRate <= 0) {
+                throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package net.easecation.bedrockmotion.animation.vanilla;
+
+import lombok.Getter;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shares the time-only tracks ({@link AnimateTransformation#timeOnly()}) of an animation between all entities that
+ * sample it at the same (quantized) time, e.g. a mob farm or an NPC crowd playing the same idle in lockstep.
+ * The first entity to sample a time bucket evaluates those tracks; everyone else copies the values and scales them
+ * by their own blend weight. Query-dependent tracks are still evaluated per entity.
+ * <p>
+ * Values depend only on the animation and the time, so entries stay valid across ticks; a few buckets are kept per
+ * animation and reused round-robin. Keys are compiled animations by identity: {@link #clear()} after reloading packs.
+ * Not thread-safe, use one cache per ticking thread.
+ */
+public class SharedPoseCache {
+    public static final float DEFAULT_SAMPLE_RATE = 60;
+    private static final int WAYS = 8;
+
+    private final float sampleRate;
+    private final Map<VBUAnimation, PoseTable> tables = new IdentityHashMap<>();
+    @Getter
+    private long hits, misses;
+
+    public SharedPoseCache() {
+        this(DEFAULT_SAMPLE_RATE);
+    }
+
+    /**
+     * @param sampleRate time buckets per second; entities within the same bucket share values
+     */
+    public SharedPoseCache(final float sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public void clear() {
+        this.tables.clear();
+    }
+
+    public double getHitRatio() {
+        final long total = this.hits + this.misses;
+        return total == 0 ? 0 : (double) this.hits / total;
+    }
+
+    /**
+     * Returns the table of an animation, or null if it has no time-only tracks.
+     */
+    PoseTable table(final VBUAnimation animation) {
+        PoseTable table = this.tables.get(animation);
+        if (table == null) {
+            table = new PoseTable(animation);
+            this.tables.put(animation, table);
+        }
+        return table.shared > 0 ? table : null;
+    }
+
+    int bucket(final float seconds) {
+        return Math.round(seconds * this.sampleRate);
+    }
+
+    /**
+     * Per-animation values: 3 floats per track, in {@code boneAnimations} iteration order, unscaled (weight 1).
+     */
+    final class PoseTable {
+        final int tracks;
+        final int shared;
+        private final int[] buckets = new int[WAYS];
+        private final boolean[] filled = new boolean[WAYS];
+        private final float[][] values = new float[WAYS][];
+        private int next;
+
+        private PoseTable(final VBUAnimation animation) {
+            int tracks = 0, shared = 0;
+            for (List<AnimateTransformation> list : animation.boneAnimations().values()) {
+                for (AnimateTransformation transformation : list) {
+                    tracks++;
+                    if (transformation.timeOnly()) {
+                        shared++;
+                    }
+                }
+            }
+            this.tracks = tracks;
+            this.shared = shared;
+        }
+
+        /**
+         * @return the values of a filled bucket, or null
+         */
+        float[] find(final int bucket) {
+            for (int way = 0; way < WAYS; way++) {
+                if (this.filled[way] && this.buckets[way] == bucket) {
+                    SharedPoseCache.this.hits++;
+                    return this.values[way];
+                }
+            }
+            SharedPoseCache.this.misses++;
+            return null;
+        }
+
+        /**
+         * Takes over the oldest way for a bucket; the caller fills the returned array.
+         */
+        float[] claim(final int bucket) {
+            final int way = this.next;
+            this.next = (way + 1) % WAYS;
+            if (this.values[way] == null) {
+                this.values[way] = new float[this.tracks * 3];
+            }
+            this.buckets[way] = bucket;
+            this.filled[way] = true;
+            return this.values[way];
+        }
+    }
+}
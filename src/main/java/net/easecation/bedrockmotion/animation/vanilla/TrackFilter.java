@@ -0,0 +1,29 @@
+package net.easecation.bedrockmotion.animation.vanilla;
+
+/**
+ * Selects which tracks of an animation are sampled, so the pose can be split between a tick-rate pass over
+ * query-dependent tracks and a render-rate pass over tracks that only depend on time.
+ *
+ * @see AnimateTransformation#timeOnly()
+ */
+public enum TrackFilter {
+    ALL,
+    // Constant keyframes or keyframes reading only anim_time/life_time
+    TIME_ONLY,
+    QUERY_DEPENDENT;
+
+    public boolean accepts(final AnimateTransformation transformation) {
+        return switch (this) {
+            case ALL -> true;
+            case TIME_ONLY -> transformation.timeOnly();
+            case QUERY_DEPENDENT -> !transformation.timeOnly();
+        };
+    }
+
+    /**
+     * Whether a baked animation, whose tracks are all constant, is sampled.
+     */
+    boolean acceptsBaked() {
+        return this != QUERY_DEPENDENT;
+    }
+}
@@ -1,13 +1,84 @@
 package net.easecation.bedrockmotion.animation.vanilla;
 
+import net.easecation.bedrockmotion.mocha.CompiledExpression;
+import net.easecation.bedrockmotion.mocha.MoLangEngine;
+import net.easecation.bedrockmotion.mocha.ParseCache;
+
+/**
+ * @param preConstants    per axis, the constant value of {@code preTarget} or NaN if it must be evaluated
+ * @param postConstants   per axis, the constant value of {@code postTarget} or NaN if it must be evaluated
+ * @param preExpressions  per axis, {@code preTarget} compiled at load time, or null if it does not parse
+ * @param postExpressions per axis, {@code postTarget} compiled at load time, or null if it does not parse
+ */
 public record VBUKeyFrame(
         float timestamp,
         String[] preTarget,
         String[] postTarget,
         boolean hasSeparatePrePost,
-        AnimateTransformation.Interpolation interpolation
+        AnimateTransformation.Interpolation interpolation,
+        float[] preConstants,
+        float[] postConstants,
+        CompiledExpression[] preExpressions,
+        CompiledExpression[] postExpressions
 ) {
+    public VBUKeyFrame(float timestamp, String[] preTarget, String[] postTarget, boolean hasSeparatePrePost,
+                       AnimateTransformation.Interpolation interpolation) {
+        this(timestamp, preTarget, postTarget, hasSeparatePrePost, interpolation, MoLangEngine.getParseCache());
+    }
+
+    /**
+     * Compiles the axis expressions through {@code cache}, e.g. the parse cache of the pack manager owning the animation.
+     */
+    public VBUKeyFrame(float timestamp, String[] preTarget, String[] postTarget, boolean hasSeparatePrePost,
+                       AnimateTransformation.Interpolation interpolation, ParseCache cache) {
+        this(timestamp, preTarget, postTarget, hasSeparatePrePost, interpolation,
+                compile(preTarget, cache), postTarget == preTarget ? null : compile(postTarget, cache));
+    }
+
     public VBUKeyFrame(float timestamp, String[] value, AnimateTransformation.Interpolation interpolation) {
         this(timestamp, value, value, false, interpolation);
     }
+
+    public VBUKeyFrame(float timestamp, String[] value, AnimateTransformation.Interpolation interpolation, ParseCache cache) {
+        this(timestamp, value, value, false, interpolation, cache);
+    }
+
+    private VBUKeyFrame(float timestamp, String[] preTarget, String[] postTarget, boolean hasSeparatePrePost,
+                        AnimateTransformation.Interpolation interpolation,
+                        CompiledExpression[] preExpressions, CompiledExpression[] postExpressions) {
+        this(timestamp, preTarget, postTarget, hasSeparatePrePost, interpolation,
+                constants(preExpressions), postExpressions == null ? null : constants(postExpressions),
+                preExpressions, postExpressions);
+    }
+
+    public VBUKeyFrame {
+        if (postConstants == null) {
+            postConstants = preConstants;
+        }
+        if (postExpressions == null) {
+            postExpressions = preExpressions;
+        }
+    }
+
+    private static CompiledExpression[] compile(String[] molang, ParseCache cache) {
+        final CompiledExpression[] expressions = new CompiledExpression[molang.length];
+        for (int i = 0; i < molang.length; i++) {
+            try {
+                expressions[i] = CompiledExpression.compile(molang[i], cache);
+            } catch (Throwable ignored) {
+                // Evaluated (and reported) every frame as before
+            }
+        }
+        return expressions;
+    }
+
+    private static float[] constants(CompiledExpression[] expressions) {
+        final float[] constants = new float[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+            constants[i] = expressions[i] != null && expressions[i].isConstant()
+                    ? (float) expressions[i].constant().getAsNumber()
+                    : Float.NaN;
+        }
+        return constants;
+    }
 }
@@ -4,11 +4,16 @@ import lombok.Getter;
 import lombok.Setter;
 import net.easecation.bedrockmotion.animation.Animation;
 import net.easecation.bedrockmotion.animation.vanilla.AnimationHelper;
+import net.easecation.bedrockmotion.animation.vanilla.SharedPoseCache;
+import net.easecation.bedrockmotion.animation.vanilla.TrackFilter;
+import net.easecation.bedrockmotion.lod.EntityLod;
 import net.easecation.bedrockmotion.model.AnimationEventListener;
+import net.easecation.bedrockmotion.model.BoneSlots;
 import net.easecation.bedrockmotion.model.IBoneModel;
 import net.easecation.bedrockmotion.model.IBoneTarget;
+import net.easecation.bedrockmotion.model.PoseHash;
+import net.easecation.bedrockmotion.mocha.CompiledExpression;
 import net.easecation.bedrockmotion.mocha.LayeredScope;
-import net.easecation.bedrockmotion.mocha.MoLangEngine;
 import net.easecation.bedrockmotion.mocha.OverlayBinding;
 import net.easecation.bedrockmotion.pack.definitions.AnimationDefinitions;
 import org.joml.Vector3f;
@@ -17,8 +22,11 @@ import team.unnamed.mocha.runtime.value.MutableObjectBinding;
 import team.unnamed.mocha.runtime.value.Value;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 public class Animator {
     private final AnimationEventListener listener;
@@ -38,29 +46,77 @@ public class Animator {
     @Getter @Setter
     private float blendWeight = 1.0f;
 
+    @Getter @Setter
+    private EntityLod lod;
+
+    // Shared with other entities on the same thread; null evaluates every track for this entity
+    @Getter @Setter
+    private SharedPoseCache poseCache;
+
+    // Records written bones for BoneSlots.resetWritten(); null looks bones up by name
+    @Getter @Setter
+    private BoneSlots boneSlots;
+
+    // Timeline/particle keys up to this time have fired in the current play; -1 before the first frame
+    private float lastEventTime = -1;
+
+    // PoseHash of the last pass per TrackFilter, and of the latest pass of any filter
+    private final long[] passHashes = new long[TrackFilter.values().length];
+    @Getter
+    private long poseHash = PoseHash.SEED;
+    private boolean poseReset;
+
     public Animator(AnimationEventListener listener, AnimationDefinitions.AnimationData data) {
         this.listener = listener;
         this.data = data;
 
         this.animationStartMS = System.currentTimeMillis();
         this.firstPlay = true;
+        Arrays.fill(this.passHashes, PoseHash.SEED);
     }
 
-    public void animate(IBoneModel model) throws IOException {
+    /**
+     * The pose is still sampled and written on every call, as is the caller's bone reset before it; only the
+     * caller's upload/apply step can be skipped when this returns false.
+     *
+     * @return false if this animator (with high probability, see {@link PoseHash}) wrote the same values as in its
+     * previous call, e.g. a static pose, a finished animation or a LOD-held frame
+     */
+    public boolean animate(IBoneModel model) throws IOException {
+        return this.animate(model, TrackFilter.ALL);
+    }
+
+    /**
+     * Samples only the tracks accepted by {@code filter}; timing and events advance as usual.
+     *
+     * @return false if this animator (with high probability, see {@link PoseHash}) wrote the same values as in its
+     * previous call with the same filter
+     * @see InterpolatedPose
+     */
+    public boolean animate(IBoneModel model, TrackFilter filter) throws IOException {
+        final long hash = this.animatePass(model, filter);
+        final boolean changed = hash != this.passHashes[filter.ordinal()] || this.poseReset;
+        this.passHashes[filter.ordinal()] = hash;
+        this.poseHash = hash;
+        this.poseReset = false;
+        return changed;
+    }
+
+    private long animatePass(IBoneModel model, TrackFilter filter) throws IOException {
         if (this.blendWeight <= 0) {
-            return;
+            return PoseHash.SEED;
         }
 
         if (this.donePlaying) {
             if (this.data.animation().getLoop().getValue().equals(true)) {
                 this.donePlaying = false;
             } else {
-                return;
+                return PoseHash.SEED;
             }
         }
 
         if (this.baseScope == null) {
-            return;
+            return PoseHash.SEED;
         }
 
         // baseScope already contains complete query bindings from buildFrameScope().
@@ -72,22 +128,26 @@ public class Animator {
             boolean skipThisTick = true;
 
             float seconds = (System.currentTimeMillis() - this.animationStartMS) / 1000F;
-            double requiredLaunchTime = MoLangEngine.eval(scope, this.firstPlay ? this.data.animation().getStartDelay() : this.data.animation().getLoopDelay()).getAsNumber();
+            // Compiled at load time; constant delays (almost all of them) skip evaluation, unparseable ones count as none
+            final CompiledExpression delay = this.firstPlay ? this.data.startDelay() : this.data.loopDelay();
+            double requiredLaunchTime = delay != null ? delay.evalNumber(scope) : 0;
             if (seconds >= requiredLaunchTime) {
                 skipThisTick = false;
                 this.started = true;
                 this.firstPlay = false;
 
                 this.animationStartMS = System.currentTimeMillis();
+                this.lastEventTime = -1;
             }
 
             if (this.started && this.data.animation().isResetBeforePlay()) {
                 model.resetAllBones();
                 this.TEMP_VEC.set(0);
+                this.poseReset = true;
             }
 
             if (skipThisTick) {
-                return;
+                return PoseHash.SEED;
             }
         }
 
@@ -104,71 +164,118 @@ public class Animator {
         // Use IBoneModel's own lazily-built bone index (cached permanently by McBoneModel)
         Map<String, IBoneTarget> boneIndex = model.getBoneIndex();
 
-        AnimationHelper.animate(scope, model, data.compiled(), System.currentTimeMillis() - this.animationStartMS, this.blendWeight, TEMP_VEC, boneIndex);
+        // LOD: skipped frames keep timing and events, the entity restores the last sampled pose
+        long hash = this.passHashes[filter.ordinal()];
+        if (this.lod == null || this.lod.shouldSample(this.blendWeight)) {
+            if (data.baked() != null) {
+                hash = data.baked().apply(boneIndex, System.currentTimeMillis() - this.animationStartMS, this.blendWeight, TEMP_VEC, filter, this.boneSlots);
+            } else {
+                hash = AnimationHelper.animate(scope, model, data.compiled(), System.currentTimeMillis() - this.animationStartMS, this.blendWeight, TEMP_VEC, boneIndex, this.poseCache, filter, this.boneSlots);
+            }
+        } else if (this.boneSlots != null) {
+            // The held pose is restored onto these bones, so they must be reset next frame as well
+            this.boneSlots.markWritten(this.boneSlots.bind(data.compiled().boneAnimations()));
+        }
 
         float runningTimeWithoutLoop = (System.currentTimeMillis() - this.animationStartMS) / 1000F;
-        this.tickTimeline(runningTimeWithoutLoop);
-        this.tickParticleEffects(runningTimeWithoutLoop);
+        this.fireEvents(this.listener, this.lastEventTime, runningTimeWithoutLoop);
+        this.lastEventTime = runningTimeWithoutLoop;
 
         if (data.compiled().lengthInSeconds() > 0 && runningTimeWithoutLoop >= data.compiled().lengthInSeconds()) {
             this.stop();
         }
+        return hash;
     }
 
-    private void tickTimeline(float runningTime) {
-        final Map<Float, List<String>> timeline = this.data.animation().getTimeline();
-        if (timeline.isEmpty()) {
+    /**
+     * Positions the animation at {@code seconds} into its current play without waiting for real time to pass,
+     * e.g. for an entity that comes into view mid-cycle. Timeline and particle events between the current position
+     * and the target are suppressed.
+     */
+    public void seek(float seconds) {
+        this.seek(seconds, null);
+    }
+
+    /**
+     * Positions the animation at {@code seconds} into its current play. Looping animations wrap around; a
+     * non-looping animation sought past its end finishes. Start/loop delays are considered elapsed.
+     * Keyframes are looked up by time when sampled, so seeking costs nothing per track.
+     *
+     * @param skippedEvents receives the timeline and particle events between the current position and the target
+     *                      (e.g. the entity's listener to fire them, or a {@link CollectedEvents}); null suppresses them.
+     *                      Events of whole loops skipped over are not repeated; seeking backwards fires nothing.
+     */
+    public void seek(float seconds, AnimationEventListener skippedEvents) {
+        final float length = this.data.compiled().lengthInSeconds();
+        final float from = this.started ? this.lastEventTime : -1;
+        float target = Math.max(0, seconds);
+        // Decided on the unwrapped target: only a seek past the end of the current play crosses a loop boundary
+        final boolean pastEnd = length > 0 && target >= length;
+        if (pastEnd && !this.data.animation().getLoop().getValue().equals(true)) {
+            if (skippedEvents != null) {
+                this.fireEvents(skippedEvents, from, length);
+            }
+            this.stop();
             return;
         }
 
-        Float nextTimestamp = null;
-        Map.Entry<Float, List<String>> candidate = null;
-
-        for (Map.Entry<Float, List<String>> entry : timeline.entrySet()) {
-            float timestamp = entry.getKey();
-            if (timestamp > runningTime) {
-                nextTimestamp = timestamp;
-                break;
-            }
-            if (!entry.getValue().isEmpty()) {
-                candidate = entry;
+        if (pastEnd) {
+            target %= length;
+            if (skippedEvents != null) {
+                // Rest of the current loop, then the start of the loop landed in
+                this.fireEvents(skippedEvents, from, length);
+                this.fireEvents(skippedEvents, -1, target);
             }
+        } else if (skippedEvents != null) {
+            // A backward seek within the play passes no keys; fireEvents ignores the empty range
+            this.fireEvents(skippedEvents, from, target);
         }
 
-        if (candidate != null
-                && (nextTimestamp == null || nextTimestamp > runningTime)
-                && Math.abs(candidate.getKey() - runningTime) < 0.005F) {
-            this.listener.onTimelineEvent(candidate.getValue());
-        }
+        this.animationStartMS = System.currentTimeMillis() - Math.round(target * 1000);
+        this.started = true;
+        this.firstPlay = false;
+        this.donePlaying = false;
+        this.lastEventTime = target;
     }
 
-    private void tickParticleEffects(float runningTime) {
-        final Map<Float, List<Animation.ParticleKeyframe>> effects = this.data.animation().getParticleEffects();
-        if (effects.isEmpty()) {
+    /**
+     * Sends every timeline and particle key in {@code (from, to]} to {@code target}, so keys are neither missed when
+     * frames are skipped or late nor fired twice.
+     */
+    private void fireEvents(AnimationEventListener target, float from, float to) {
+        if (to <= from) {
             return;
         }
-
-        Float nextTimestamp = null;
-        Map.Entry<Float, List<Animation.ParticleKeyframe>> candidate = null;
-
-        for (Map.Entry<Float, List<Animation.ParticleKeyframe>> entry : effects.entrySet()) {
-            float timestamp = entry.getKey();
-            if (timestamp > runningTime) {
-                nextTimestamp = timestamp;
-                break;
+        final Map<Float, List<String>> timeline = this.data.animation().getTimeline();
+        if (!timeline.isEmpty()) {
+            for (Map.Entry<Float, List<String>> entry : range(timeline, from, to).entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    target.onTimelineEvent(entry.getValue());
+                }
             }
-            if (!entry.getValue().isEmpty()) {
-                candidate = entry;
+        }
+
+        final Map<Float, List<Animation.ParticleKeyframe>> effects = this.data.animation().getParticleEffects();
+        if (!effects.isEmpty()) {
+            for (Map.Entry<Float, List<Animation.ParticleKeyframe>> entry : range(effects, from, to).entrySet()) {
+                for (Animation.ParticleKeyframe kf : entry.getValue()) {
+                    target.onParticleEvent(kf.effect(), kf.locator());
+                }
             }
         }
+    }
 
-        if (candidate != null
-                && (nextTimestamp == null || nextTimestamp > runningTime)
-                && Math.abs(candidate.getKey() - runningTime) < 0.005F) {
-            for (Animation.ParticleKeyframe kf : candidate.getValue()) {
-                this.listener.onParticleEvent(kf.effect(), kf.locator());
+    private static <V> Map<Float, V> range(Map<Float, V> keyframes, float from, float to) {
+        if (keyframes instanceof NavigableMap<Float, V> navigable) {
+            return navigable.subMap(from, false, to, true);
+        }
+        final Map<Float, V> range = new TreeMap<>();
+        for (Map.Entry<Float, V> entry : keyframes.entrySet()) {
+            if (entry.getKey() > from && entry.getKey() <= to) {
+                range.put(entry.getKey(), entry.getValue());
             }
         }
+        return range;
     }
 
     public boolean isDonePlaying() {
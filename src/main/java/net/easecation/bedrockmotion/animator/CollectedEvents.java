@@ -0,0 +1,48 @@
+package net.easecation.bedrockmotion.animator;
+
+import lombok.Getter;
+import net.easecation.bedrockmotion.model.AnimationEventListener;
+import team.unnamed.mocha.runtime.Scope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the events skipped by a seek ({@link Animator#seek(float, AnimationEventListener)}) so the caller can
+ * decide what to replay, e.g. only the sounds of the last second.
+ */
+@Getter
+public class CollectedEvents implements AnimationEventListener {
+    private final List<List<String>> timelineEvents = new ArrayList<>();
+    private final List<ParticleEvent> particleEvents = new ArrayList<>();
+
+    @Override
+    public void onTimelineEvent(List<String> expressions) {
+        this.timelineEvents.add(expressions);
+    }
+
+    @Override
+    public void onParticleEvent(String effectShortName, String locator) {
+        this.particleEvents.add(new ParticleEvent(effectShortName, locator));
+    }
+
+    /**
+     * Not used for collecting; seeks only deliver events to this listener.
+     */
+    @Override
+    public Scope getEntityScope() {
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return this.timelineEvents.isEmpty() && this.particleEvents.isEmpty();
+    }
+
+    public void clear() {
+        this.timelineEvents.clear();
+        this.particleEvents.clear();
+    }
+
+    public record ParticleEvent(String effect, String locator) {
+    }
+}
@@ -0,0 +1,66 @@
+package net.easecation.bedrockmotion.animator;
+
+import net.easecation.bedrockmotion.animation.vanilla.TrackFilter;
+import net.easecation.bedrockmotion.model.IBoneModel;
+import net.easecation.bedrockmotion.model.PoseSnapshot;
+
+/**
+ * Double-buffered pose for rendering faster than the game ticks. MoLang inputs only change at tick rate, so keyframes
+ * are evaluated once per tick and each render frame interpolates between the last two tick poses (rotations along
+ * the shortest path), one tick behind like vanilla entity rendering.
+ * <p>
+ * Tracks that only depend on time can still be sampled every frame on top of the interpolated pose:
+ * <pre>{@code
+ * // each tick
+ * model.resetAllBones();
+ * controller.tick(frameScope);
+ * controller.animate(model, TrackFilter.QUERY_DEPENDENT);   // or TrackFilter.ALL to interpolate everything
+ * pose.capture(model);
+ *
+ * // each render frame
+ * pose.apply(partialTick);
+ * controller.animate(model, TrackFilter.TIME_ONLY);         // skip when the tick pass used TrackFilter.ALL
+ * }</pre>
+ *
+ * @see TrackFilter
+ */
+public class InterpolatedPose {
+    private PoseSnapshot previous = new PoseSnapshot();
+    private PoseSnapshot current = new PoseSnapshot();
+
+    /**
+     * Stores the pose of a tick; the pose of the tick before becomes the interpolation start.
+     */
+    public void capture(final IBoneModel model) {
+        final PoseSnapshot swap = this.previous;
+        this.previous = this.current;
+        this.current = swap;
+        this.current.capture(model);
+    }
+
+    /**
+     * Writes the pose between the previous and the latest tick to the model's bones.
+     * Without a previous tick (or after the bones changed) the latest pose is written as is.
+     *
+     * @param partialTick progress from the previous tick to the latest one, 0 to 1
+     */
+    public void apply(final float partialTick) {
+        if (!this.current.isCaptured()) {
+            return;
+        }
+        PoseSnapshot.interpolate(this.previous, this.current, Math.max(0, Math.min(partialTick, 1)));
+    }
+
+    public boolean isReady() {
+        return this.current.isCaptured();
+    }
+
+    /**
+     * Drops both poses, e.g. after a teleport or when the model was rebuilt, so the next frames do not interpolate
+     * from a stale pose.
+     */
+    public void reset() {
+        this.previous.clear();
+        this.current.clear();
+    }
+}
@@ -3,8 +3,12 @@ package net.easecation.bedrockmotion.controller;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.Getter;
+import net.easecation.bedrockmotion.util.JsonUtil;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -58,6 +62,63 @@ public class AnimationController {
         return result;
     }
 
+    /**
+     * Streaming equivalent of {@link #parse(JsonObject)}: reads a controller file straight from the reader
+     * without building an intermediate JsonObject tree.
+     */
+    public static List<AnimationController> parse(JsonReader reader) throws IOException {
+        // Keyed like the tree parser's JsonObject: a repeated key keeps its first position but takes the last value
+        final Map<String, AnimationController> result = new LinkedHashMap<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("animation_controllers") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+
+            result.clear();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String identifier = reader.nextName();
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    result.remove(identifier);
+                    continue;
+                }
+
+                String initialState = "default";
+                final Map<String, State> states = new LinkedHashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "initial_state" -> initialState = JsonUtil.readString(reader);
+                        case "states" -> {
+                            states.clear();
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                final String stateName = reader.nextName();
+                                if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                                    states.put(stateName, State.parse(reader));
+                                } else {
+                                    reader.skipValue();
+                                    states.remove(stateName);
+                                }
+                            }
+                            reader.endObject();
+                        }
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                result.put(identifier, new AnimationController(identifier, initialState, states));
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        return new ArrayList<>(result.values());
+    }
+
     @Getter
     public static class State {
         private final List<StateAnimation> animations;
@@ -143,6 +204,120 @@ public class AnimationController {
                     particleEffects, blendTransitionCurve, blendViaShortestPath);
         }
 
+        static State parse(JsonReader reader) throws IOException {
+            final List<StateAnimation> animations = new ArrayList<>();
+            final List<Transition> transitions = new ArrayList<>();
+            List<String> onEntry = List.of();
+            List<String> onExit = List.of();
+            final List<ParticleEffect> particleEffects = new ArrayList<>();
+            BlendTransitionCurve blendTransitionCurve = BlendTransitionCurve.NONE;
+            boolean blendViaShortestPath = false;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "animations" -> {
+                        // ["anim1", {"anim2": "blend_weight_molang"}]
+                        animations.clear();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            final JsonToken token = reader.peek();
+                            if (token == JsonToken.BEGIN_OBJECT) {
+                                readStringMap(reader).forEach((shortName, weight) ->
+                                        animations.add(new StateAnimation(shortName, weight)));
+                            } else if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                                animations.add(new StateAnimation(JsonUtil.readString(reader), ""));
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endArray();
+                    }
+                    case "transitions" -> {
+                        // [{"target_state": "molang_condition"}]
+                        transitions.clear();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                                reader.skipValue();
+                                continue;
+                            }
+                            readStringMap(reader).forEach((targetState, condition) ->
+                                    transitions.add(new Transition(targetState, condition)));
+                        }
+                        reader.endArray();
+                    }
+                    case "on_entry" -> onEntry = parseStringArray(reader);
+                    case "on_exit" -> onExit = parseStringArray(reader);
+                    case "blend_transition" -> blendTransitionCurve = BlendTransitionCurve.parse(reader);
+                    case "blend_via_shortest_path" -> blendViaShortestPath = JsonUtil.readBoolean(reader);
+                    case "particle_effects" -> {
+                        // [{"effect": "short_name", "locator": "bone"}]
+                        particleEffects.clear();
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                                reader.skipValue();
+                                continue;
+                            }
+                            String effect = "", locator = "", preEffect = "";
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                switch (reader.nextName()) {
+                                    case "effect" -> effect = JsonUtil.readString(reader);
+                                    case "locator" -> locator = JsonUtil.readString(reader);
+                                    case "pre_effect_script" -> preEffect = JsonUtil.readString(reader);
+                                    default -> reader.skipValue();
+                                }
+                            }
+                            reader.endObject();
+                            particleEffects.add(new ParticleEffect(effect, locator, preEffect));
+                        }
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new State(animations, transitions, onEntry, onExit,
+                    particleEffects, blendTransitionCurve, blendViaShortestPath);
+        }
+
+        /**
+         * Reads an object of primitives in key order; a repeated key keeps its first position but takes the last
+         * value, as it would in a JsonObject.
+         */
+        private static Map<String, String> readStringMap(JsonReader reader) throws IOException {
+            final Map<String, String> result = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String key = reader.nextName();
+                result.put(key, JsonUtil.readString(reader));
+            }
+            reader.endObject();
+            return result;
+        }
+
+        private static List<String> parseStringArray(JsonReader reader) throws IOException {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                return List.of();
+            }
+            final List<String> result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                final JsonToken token = reader.peek();
+                if (token == JsonToken.STRING || token == JsonToken.NUMBER || token == JsonToken.BOOLEAN) {
+                    result.add(JsonUtil.readString(reader));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+            return result;
+        }
+
         private static List<String> parseStringArray(JsonArray array) {
             if (array == null) {
                 return List.of();
@@ -1,11 +1,20 @@
 package net.easecation.bedrockmotion.controller;
 
+import jdk.jfr.EventType;
 import lombok.Setter;
+import net.easecation.bedrockmotion.animation.vanilla.SharedPoseCache;
+import net.easecation.bedrockmotion.animation.vanilla.TrackFilter;
 import net.easecation.bedrockmotion.animator.Animator;
+import net.easecation.bedrockmotion.jfr.ControllerTransitionEvent;
+import net.easecation.bedrockmotion.lod.EntityLod;
+import net.easecation.bedrockmotion.metrics.Metrics;
 import net.easecation.bedrockmotion.model.AnimationEventListener;
+import net.easecation.bedrockmotion.model.BoneSlots;
 import net.easecation.bedrockmotion.model.BoneTransform;
 import net.easecation.bedrockmotion.model.IBoneModel;
 import net.easecation.bedrockmotion.model.IBoneTarget;
+import net.easecation.bedrockmotion.model.PoseHash;
+import net.easecation.bedrockmotion.mocha.CompiledExpression;
 import net.easecation.bedrockmotion.mocha.LayeredScope;
 import net.easecation.bedrockmotion.mocha.MoLangEngine;
 import net.easecation.bedrockmotion.mocha.OverlayBinding;
@@ -14,7 +23,6 @@ import net.easecation.bedrockmotion.util.MathUtil;
 import org.joml.Vector3f;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import team.unnamed.mocha.parser.ast.Expression;
 import team.unnamed.mocha.runtime.Scope;
 import team.unnamed.mocha.runtime.value.MutableObjectBinding;
 import team.unnamed.mocha.runtime.value.Value;
@@ -28,6 +36,8 @@ import java.util.*;
  */
 public class AnimationControllerInstance {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnimationControllerInstance.class);
+    // Checked before creating the event so that transitions allocate nothing for it while it is not recorded
+    private static final EventType TRANSITION_EVENT = EventType.getEventType(ControllerTransitionEvent.class);
 
     private final AnimationController definition;
     private final Map<String, String> entityAnimations; // entity def shortName -> full anim identifier
@@ -38,11 +48,11 @@ public class AnimationControllerInstance {
     private AnimationController.State currentState;
     private final Map<String, Animator> stateAnimators = new LinkedHashMap<>();
 
-    // Pre-parsed MoLang for all states' transitions (parsed once at construction)
+    // Pre-compiled MoLang for all states' transitions (compiled once at construction)
     private final Map<String, List<ParsedTransition>> parsedTransitionsByState = new HashMap<>();
 
-    // Pre-parsed blend weight expressions for current state's animators (rebuilt on state change)
-    private final Map<String, List<Expression>> parsedBlendWeights = new HashMap<>();
+    // Pre-compiled blend weight expressions for current state's animators (rebuilt on state change)
+    private final Map<String, CompiledExpression> parsedBlendWeights = new HashMap<>();
 
     // States that are fading out during a blend_transition cross-fade
     private final List<FadingState> fadingStates = new ArrayList<>();
@@ -50,6 +60,10 @@ public class AnimationControllerInstance {
     @Setter
     private float controllerBlendWeight = 1.0f;
 
+    private EntityLod lod;
+    private SharedPoseCache poseCache;
+    private BoneSlots boneSlots;
+
     private final LayeredScope reusableTransitionScope = new LayeredScope(Scope.create());
     private final OverlayBinding reusableTransitionOverlay = new OverlayBinding(null);
 
@@ -57,6 +71,11 @@ public class AnimationControllerInstance {
     private final Map<String, Float> currentBaseWeights = new HashMap<>();
     private float lastIncomingFactor = 1.0f;
 
+    // Pose change detection: PoseHash of the last animate() per TrackFilter, and the pass in progress
+    private final long[] passHashes = new long[TrackFilter.values().length];
+    private long passHash;
+    private boolean passChanged;
+
     private int debugTickCounter = 0;
     private long stateEnteredMS;
 
@@ -70,6 +89,7 @@ public class AnimationControllerInstance {
         this.animationDefinitions = animationDefinitions;
         this.listener = listener;
 
+        Arrays.fill(passHashes, PoseHash.SEED);
         preParseAllTransitions();
         enterState(definition.getInitialState(), listener.getEntityScope());
     }
@@ -79,7 +99,12 @@ public class AnimationControllerInstance {
             final List<ParsedTransition> parsed = new ArrayList<>();
             for (AnimationController.Transition trans : entry.getValue().getTransitions()) {
                 try {
-                    parsed.add(new ParsedTransition(trans.targetState(), MoLangEngine.parse(trans.condition())));
+                    final CompiledExpression condition = CompiledExpression.compile(trans.condition(), animationDefinitions.getParseCache());
+                    if (condition.isConstant() && !condition.constant().getAsBoolean()) {
+                        // Can never fire
+                        continue;
+                    }
+                    parsed.add(new ParsedTransition(trans.targetState(), condition));
                 } catch (IOException e) {
                     LOGGER.warn("[AnimController] Failed to parse transition condition '{}' in state '{}'",
                             trans.condition(), entry.getKey(), e);
@@ -96,11 +121,47 @@ public class AnimationControllerInstance {
         }
     }
 
+    /**
+     * Applies an entity LOD to every animator of this controller, including those of states entered later.
+     * Transitions are still evaluated every {@link #tick}.
+     */
+    public void setLod(EntityLod lod) {
+        this.lod = lod;
+        stateAnimators.values().forEach(a -> a.setLod(lod));
+        for (FadingState fs : fadingStates) {
+            fs.animators.values().forEach(a -> a.setLod(lod));
+        }
+    }
+
+    /**
+     * Shares time-only tracks of this controller's animators, including those of states entered later.
+     */
+    public void setPoseCache(SharedPoseCache poseCache) {
+        this.poseCache = poseCache;
+        stateAnimators.values().forEach(a -> a.setPoseCache(poseCache));
+        for (FadingState fs : fadingStates) {
+            fs.animators.values().forEach(a -> a.setPoseCache(poseCache));
+        }
+    }
+
+    /**
+     * Records the bones written by this controller's animators, including those of states entered later, and
+     * restricts sampling and cross-fade blending to its needed bones.
+     */
+    public void setBoneSlots(BoneSlots boneSlots) {
+        this.boneSlots = boneSlots;
+        stateAnimators.values().forEach(a -> a.setBoneSlots(boneSlots));
+        for (FadingState fs : fadingStates) {
+            fs.animators.values().forEach(a -> a.setBoneSlots(boneSlots));
+        }
+    }
+
     public void tick(Scope frameScope) {
         if (controllerBlendWeight <= 0 || currentState == null) {
             return;
         }
 
+        final long startNanos = Metrics.isEnabled() ? System.nanoTime() : 0;
         final Scope transitionScope = buildTransitionScope(frameScope);
 
         if (debugTickCounter++ % 60 == 0) {
@@ -121,7 +182,7 @@ public class AnimationControllerInstance {
         if (transitions != null) {
             for (ParsedTransition trans : transitions) {
                 try {
-                    final Value result = MoLangEngine.eval(transitionScope, trans.parsedCondition());
+                    final Value result = trans.condition().eval(transitionScope);
                     if (result.getAsBoolean()) {
                         LOGGER.debug("[AnimController] {} transition: {} -> {}",
                                 definition.getIdentifier(), currentStateName, trans.targetState());
@@ -131,6 +192,9 @@ public class AnimationControllerInstance {
                 } catch (Throwable e) {
                     LOGGER.warn("[AnimController] {} transition eval error in state '{}' -> '{}': {}",
                             definition.getIdentifier(), currentStateName, trans.targetState(), e.getMessage());
+                    if (Metrics.isEnabled()) {
+                        Metrics.get().evalError();
+                    }
                 }
             }
         }
@@ -145,6 +209,10 @@ public class AnimationControllerInstance {
             currentBaseWeights.put(animId, base);
             animator.setBlendWeight(base * incomingFactor * controllerBlendWeight);
         });
+
+        if (Metrics.isEnabled()) {
+            Metrics.get().controllerTickNanos(System.nanoTime() - startNanos);
+        }
     }
 
     private Scope buildTransitionScope(Scope frameScope) {
@@ -178,11 +246,46 @@ public class AnimationControllerInstance {
         return scope;
     }
 
-    public void animate(IBoneModel model) {
+    /**
+     * The pose is still sampled and written on every call; only the caller's upload/apply step can be skipped.
+     *
+     * @return false if the pose written is (with high probability, see {@link PoseHash}) the one of the previous call
+     * (same animators, weights and values), so the caller can skip copying or sending it
+     */
+    public boolean animate(IBoneModel model) {
+        return animate(model, TrackFilter.ALL);
+    }
+
+    /**
+     * Samples only the tracks accepted by {@code filter} in every animator, e.g. query-dependent tracks at tick rate
+     * and time-only tracks every render frame.
+     *
+     * @return false if the pose written is (with high probability) the one of the previous call with the same filter
+     * @see net.easecation.bedrockmotion.animator.InterpolatedPose
+     */
+    public boolean animate(IBoneModel model, TrackFilter filter) {
+        passHash = PoseHash.SEED;
+        passChanged = false;
+        animatePass(model, filter);
+        final boolean changed = passChanged || passHash != passHashes[filter.ordinal()];
+        passHashes[filter.ordinal()] = passHash;
+        return changed;
+    }
+
+    private void animatePass(IBoneModel model, TrackFilter filter) {
         if (controllerBlendWeight <= 0) {
             return;
         }
 
+        if (lod != null && !lod.isSampling()) {
+            // Nothing is sampled: only advance animator timing and events, the LOD restores the pose
+            for (FadingState fs : fadingStates) {
+                applyAnimators(fs.animators.values(), model, filter);
+            }
+            applyAnimators(stateAnimators.values(), model, filter);
+            return;
+        }
+
         FadingState shortestPathFs = null;
         for (int i = fadingStates.size() - 1; i >= 0; i--) {
             if (fadingStates.get(i).blendViaShortestPath) {
@@ -193,31 +296,42 @@ public class AnimationControllerInstance {
 
         for (FadingState fs : fadingStates) {
             if (fs == shortestPathFs) continue;
-            applyAnimators(fs.animators.values(), model);
+            applyAnimators(fs.animators.values(), model, filter);
         }
 
         if (shortestPathFs != null) {
-            animateWithShortestPath(model, shortestPathFs);
+            animateWithShortestPath(model, shortestPathFs, filter);
         } else {
-            applyAnimators(stateAnimators.values(), model);
+            applyAnimators(stateAnimators.values(), model, filter);
         }
     }
 
-    private void applyAnimators(Collection<Animator> animators, IBoneModel model) {
+    private void applyAnimators(Collection<Animator> animators, IBoneModel model, TrackFilter filter) {
+        if (Metrics.isEnabled()) {
+            int sampled = 0;
+            for (Animator animator : animators) {
+                if (animator.getBlendWeight() > 0 && (lod == null || lod.shouldSample(animator.getBlendWeight()))) {
+                    sampled++;
+                }
+            }
+            Metrics.get().animatorsSampled(sampled);
+        }
         for (Animator animator : animators) {
             try {
-                animator.animate(model);
+                passChanged |= animator.animate(model, filter);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
+            passHash = PoseHash.mix(passHash, animator.getPoseHash());
         }
     }
 
     /**
      * Two-pass blending with shortest rotation path for a fading state cross-fade.
      */
-    private void animateWithShortestPath(IBoneModel model, FadingState outgoing) {
-        final Iterable<IBoneTarget> allBones = model.getAllBones();
+    private void animateWithShortestPath(IBoneModel model, FadingState outgoing, TrackFilter filter) {
+        // Bones outside the needed mask are never written, so they need no blending
+        final Iterable<IBoneTarget> allBones = boneSlots != null ? boneSlots.getNeededBones() : model.getAllBones();
 
         // Save current bone state
         final Map<IBoneTarget, BoneTransform> saved = new IdentityHashMap<>();
@@ -227,7 +341,7 @@ public class AnimationControllerInstance {
 
         // --- Pass 1: Outgoing at base weight ---
         setAnimatorWeights(outgoing.animators, outgoing.baseWeights, 1.0f);
-        applyAnimators(outgoing.animators.values(), model);
+        applyAnimators(outgoing.animators.values(), model, filter);
 
         // Capture outgoing result, then restore bones for pass 2
         final Map<IBoneTarget, BoneTransform> afterOut = new IdentityHashMap<>();
@@ -242,10 +356,11 @@ public class AnimationControllerInstance {
 
         // --- Pass 2: Incoming at base weight ---
         setAnimatorWeights(stateAnimators, currentBaseWeights, 1.0f);
-        applyAnimators(stateAnimators.values(), model);
+        applyAnimators(stateAnimators.values(), model, filter);
 
         // --- Blend outgoing/incoming deltas and apply ---
         final float inFactor = lastIncomingFactor;
+        passHash = PoseHash.mix(PoseHash.mix(passHash, inFactor), controllerBlendWeight);
         for (IBoneTarget bone : allBones) {
             final BoneTransform s = saved.get(bone);
             final BoneTransform out = afterOut.get(bone);
@@ -302,7 +417,46 @@ public class AnimationControllerInstance {
         });
     }
 
+    /**
+     * Positions the current state {@code seconds} after it was entered: the state time seen by transitions as
+     * {@code query.anim_time} and every animator of the state. Cross-fades in progress are finished and skipped
+     * timeline/particle events are suppressed.
+     */
+    public void seek(float seconds) {
+        seek(seconds, null);
+    }
+
+    /**
+     * Like {@link #seek(float)}, delivering skipped events to {@code skippedEvents} (null suppresses them).
+     */
+    public void seek(float seconds, AnimationEventListener skippedEvents) {
+        fadingStates.clear();
+        stateEnteredMS = System.currentTimeMillis() - Math.round(Math.max(0, seconds) * 1000);
+        for (Animator animator : stateAnimators.values()) {
+            animator.seek(seconds, skippedEvents);
+        }
+    }
+
+    /**
+     * Switches to {@code stateName} without a cross-fade, e.g. to restore state synced from elsewhere, and seeks it.
+     * Exit/entry scripts run as for a normal transition; the state's particle effects go to {@code skippedEvents}.
+     */
+    public void seekState(String stateName, float seconds, AnimationEventListener skippedEvents) {
+        if (!stateName.equals(currentStateName)) {
+            enterState(stateName, listener.getEntityScope(), skippedEvents);
+        }
+        seek(seconds, skippedEvents);
+    }
+
+    public String getCurrentStateName() {
+        return currentStateName;
+    }
+
     private void enterState(String stateName, Scope scope) {
+        enterState(stateName, scope, listener);
+    }
+
+    private void enterState(String stateName, Scope scope, AnimationEventListener eventTarget) {
         final AnimationController.State newState = definition.getStates().get(stateName);
         if (newState == null) {
             LOGGER.warn("[AnimController] State '{}' not found in controller '{}'",
@@ -310,10 +464,18 @@ public class AnimationControllerInstance {
             return;
         }
 
+        final ControllerTransitionEvent event = TRANSITION_EVENT.isEnabled() ? new ControllerTransitionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final String previousStateName = currentStateName;
+        float blendTransition = 0;
+
         if (currentState != null) {
             executeScripts(currentState.getOnExit(), scope);
 
             final BlendTransitionCurve curve = currentState.getBlendTransitionCurve();
+            blendTransition = curve.getDuration();
             if (!curve.isNone() && !stateAnimators.isEmpty()) {
                 fadingStates.add(new FadingState(
                         new LinkedHashMap<>(stateAnimators),
@@ -322,6 +484,12 @@ public class AnimationControllerInstance {
                         System.currentTimeMillis(),
                         currentState.isBlendViaShortestPath()
                 ));
+                if (Metrics.isEnabled()) {
+                    Metrics.get().fadeStarted(definition.getIdentifier());
+                }
+            }
+            if (Metrics.isEnabled()) {
+                Metrics.get().transitionFired(definition.getIdentifier(), currentStateName, stateName);
             }
         }
 
@@ -348,12 +516,15 @@ public class AnimationControllerInstance {
             }
 
             final Animator animator = new Animator(listener, animData);
+            animator.setLod(lod);
+            animator.setPoseCache(poseCache);
+            animator.setBoneSlots(boneSlots);
             stateAnimators.put(animData.animation().getIdentifier(), animator);
 
             if (sa.blendWeightExpression() != null && !sa.blendWeightExpression().isBlank()) {
                 try {
                     parsedBlendWeights.put(animData.animation().getIdentifier(),
-                            MoLangEngine.parse(sa.blendWeightExpression()));
+                            CompiledExpression.compile(sa.blendWeightExpression(), animationDefinitions.getParseCache()));
                 } catch (IOException e) {
                     LOGGER.warn("[AnimController] Failed to parse blend weight '{}' for animation '{}'",
                             sa.blendWeightExpression(), sa.shortName(), e);
@@ -364,28 +535,49 @@ public class AnimationControllerInstance {
         executeScripts(currentState.getOnEntry(), scope);
 
         // Trigger particle effects defined on this state
-        for (AnimationController.ParticleEffect pe : currentState.getParticleEffects()) {
-            listener.onParticleEvent(pe.effect(), pe.locator());
+        if (eventTarget != null) {
+            for (AnimationController.ParticleEffect pe : currentState.getParticleEffects()) {
+                eventTarget.onParticleEvent(pe.effect(), pe.locator());
+            }
+        }
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.controller = definition.getIdentifier();
+                event.fromState = previousStateName;
+                event.toState = stateName;
+                event.blendTransition = blendTransition;
+                event.animators = stateAnimators.size();
+                event.commit();
+            }
         }
     }
 
     private void executeScripts(List<String> scripts, Scope scope) {
         for (String expr : scripts) {
             try {
-                MoLangEngine.eval(scope, expr);
+                MoLangEngine.eval(scope, expr, animationDefinitions.getParseCache());
             } catch (Throwable e) {
                 LOGGER.debug("[AnimController] Failed to execute script: {}", expr, e);
+                if (Metrics.isEnabled()) {
+                    Metrics.get().evalError();
+                }
             }
         }
     }
 
-    private float evalBlendWeight(Map<String, List<Expression>> blendWeightMap,
+    private float evalBlendWeight(Map<String, CompiledExpression> blendWeightMap,
                                   String animId, Scope frameScope) {
-        final List<Expression> expr = blendWeightMap.get(animId);
+        final CompiledExpression expr = blendWeightMap.get(animId);
         if (expr == null) return 1.0f;
         try {
-            return (float) MoLangEngine.eval(frameScope, expr).getAsNumber();
+            // Constant and single-query weights take a fast path inside CompiledExpression
+            return (float) expr.evalNumber(frameScope);
         } catch (Throwable e) {
+            if (Metrics.isEnabled()) {
+                Metrics.get().evalError();
+            }
             return 1.0f;
         }
     }
@@ -411,18 +603,18 @@ public class AnimationControllerInstance {
         return total;
     }
 
-    private record ParsedTransition(String targetState, List<Expression> parsedCondition) {}
+    private record ParsedTransition(String targetState, CompiledExpression condition) {}
 
     private static final class FadingState {
         final Map<String, Animator> animators;
-        final Map<String, List<Expression>> blendWeights;
+        final Map<String, CompiledExpression> blendWeights;
         final BlendTransitionCurve curve;
         final long fadeStartMS;
         final boolean blendViaShortestPath;
         final Map<String, Float> baseWeights = new HashMap<>();
 
         FadingState(Map<String, Animator> animators,
-                    Map<String, List<Expression>> blendWeights,
+                    Map<String, CompiledExpression> blendWeights,
                     BlendTransitionCurve curve, long fadeStartMS,
                     boolean blendViaShortestPath) {
             this.animators = animators;
@@ -2,7 +2,10 @@ package net.easecation.bedrockmotion.controller;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -52,6 +55,35 @@ public class BlendTransitionCurve {
         return NONE;
     }
 
+    public static BlendTransitionCurve parse(JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            return ofDuration(Float.parseFloat(reader.nextString()));
+        }
+
+        if (token == JsonToken.BEGIN_OBJECT) {
+            final TreeMap<Float, Float> kf = new TreeMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String key = reader.nextName();
+                final JsonToken valueToken = reader.peek();
+                if (valueToken != JsonToken.NUMBER && valueToken != JsonToken.STRING) {
+                    reader.skipValue();
+                    continue;
+                }
+                try {
+                    kf.put(Float.parseFloat(key), Float.parseFloat(reader.nextString()));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            reader.endObject();
+            return ofKeyframes(kf);
+        }
+
+        reader.skipValue();
+        return NONE;
+    }
+
     public boolean isNone() {
         return duration <= 0;
     }
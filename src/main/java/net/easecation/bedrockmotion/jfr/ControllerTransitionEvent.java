@@ -0,0 +1,30 @@
+package net.easecation.bedrockmotion.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * An animation controller entering a new state.
+ */
+@Name("net.easecation.bedrockmotion.ControllerTransition")
+@Label("Animation Controller Transition")
+@Category({"BedrockMotion", "Animation"})
+@StackTrace(false)
+public class ControllerTransitionEvent extends Event {
+    @Label("Controller")
+    public String controller;
+
+    @Label("From State")
+    public String fromState;
+
+    @Label("To State")
+    public String toState;
+
+    @Label("Blend Transition")
+    @Description("Cross-fade duration of the state that was left, 0 if it cuts")
+    @Timespan(Timespan.SECONDS)
+    public float blendTransition;
+
+    @Label("Animators")
+    @Description("Animators created for the new state")
+    public int animators;
+}
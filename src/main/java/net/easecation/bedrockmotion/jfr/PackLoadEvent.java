@@ -0,0 +1,24 @@
+package net.easecation.bedrockmotion.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Parsing and merging one definition type of a pack stack, on {@code PackManager} construction or pack changes.
+ */
+@Name("net.easecation.bedrockmotion.PackLoad")
+@Label("Pack Definitions Load")
+@Category({"BedrockMotion", "Pack"})
+@Description("Parse and merge of one definition type across the pack stack")
+@StackTrace(false)
+public class PackLoadEvent extends Event {
+    @Label("Definition Type")
+    public String definitionType;
+
+    @Label("Packs")
+    @Description("Packs in the stack")
+    public int packs;
+
+    @Label("Parsed Packs")
+    @Description("Packs parsed (or fetched from the layer cache) for this load")
+    public int parsedPacks;
+}
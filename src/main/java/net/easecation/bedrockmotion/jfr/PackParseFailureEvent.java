@@ -0,0 +1,31 @@
+package net.easecation.bedrockmotion.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A pack file that could not be parsed and was skipped.
+ */
+@Name("net.easecation.bedrockmotion.PackParseFailure")
+@Label("Pack Parse Failure")
+@Category({"BedrockMotion", "Pack"})
+@StackTrace(false)
+public class PackParseFailureEvent extends Event {
+    @Label("Definition Type")
+    public String definitionType;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Error")
+    public String error;
+
+    public static void emit(final Class<?> definitionType, final String path, final Throwable error) {
+        final PackParseFailureEvent event = new PackParseFailureEvent();
+        if (event.isEnabled()) {
+            event.definitionType = definitionType.getSimpleName();
+            event.path = path;
+            event.error = String.valueOf(error);
+            event.commit();
+        }
+    }
+}
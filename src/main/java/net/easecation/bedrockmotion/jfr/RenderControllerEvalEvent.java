@@ -0,0 +1,22 @@
+package net.easecation.bedrockmotion.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One {@code RenderControllerEvaluator.evaluate} call.
+ */
+@Name("net.easecation.bedrockmotion.RenderControllerEval")
+@Label("Render Controller Evaluation")
+@Category({"BedrockMotion", "Render"})
+@StackTrace(false)
+public class RenderControllerEvalEvent extends Event {
+    @Label("Entity")
+    public String entity;
+
+    @Label("Controllers")
+    public int controllers;
+
+    @Label("Models")
+    @Description("Geometry/texture combinations resolved")
+    public int models;
+}
@@ -0,0 +1,16 @@
+package net.easecation.bedrockmotion.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A MoLang evaluation that took longer than the threshold (1 ms unless overridden in the recording settings).
+ */
+@Name("net.easecation.bedrockmotion.SlowEval")
+@Label("Slow MoLang Evaluation")
+@Category({"BedrockMotion", "MoLang"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class SlowEvalEvent extends Event {
+    @Label("Expression")
+    public String expression;
+}
@@ -0,0 +1,26 @@
+package net.easecation.bedrockmotion.lod;
+
+/**
+ * How much animation work to spend on one entity.
+ *
+ * @param updateInterval sample animators every N-th frame and hold the last pose in between (1 = every frame)
+ * @param minBlendWeight animators whose blend weight is below this are not sampled at all
+ * @param frozen         keep the last sampled pose until the level changes
+ */
+public record AnimationLod(int updateInterval, float minBlendWeight, boolean frozen) {
+    public static final AnimationLod FULL = new AnimationLod(1, 0, false);
+    public static final AnimationLod FROZEN = new AnimationLod(1, 0, true);
+
+    public AnimationLod {
+        if (updateInterval < 1) {
+            throw new IllegalArgumentException("Update interval must be at least 1: " + updateInterval);
+        }
+    }
+
+    /**
+     * @return true if frames can be skipped, i.e. the pose must be cached between sampled frames
+     */
+    public boolean isReduced() {
+        return this.updateInterval > 1 || this.frozen;
+    }
+}
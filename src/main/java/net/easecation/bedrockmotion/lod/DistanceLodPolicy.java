@@ -0,0 +1,94 @@
+package net.easecation.bedrockmotion.lod;
+
+import net.easecation.bedrockmotion.pack.definitions.VisibleBounds;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Distance bands, scaled by entity size: distances are divided by the larger visible bounds dimension relative to
+ * a 2 block tall humanoid, so a ghast keeps full animation further away than a chicken.
+ */
+public class DistanceLodPolicy implements LodPolicy {
+    private static final float REFERENCE_SIZE = 2.0f;
+
+    public static final DistanceLodPolicy DEFAULT = DistanceLodPolicy.builder()
+            .band(24, AnimationLod.FULL)
+            .band(48, new AnimationLod(2, 0.05f, false))
+            .band(96, new AnimationLod(4, 0.25f, false))
+            .beyond(AnimationLod.FROZEN)
+            .invisible(AnimationLod.FROZEN)
+            .build();
+
+    private final double[] maxDistances;
+    private final AnimationLod[] levels;
+    private final AnimationLod beyond;
+    private final AnimationLod invisible;
+
+    private DistanceLodPolicy(final List<Band> bands, final AnimationLod beyond, final AnimationLod invisible) {
+        this.maxDistances = new double[bands.size()];
+        this.levels = new AnimationLod[bands.size()];
+        for (int i = 0; i < bands.size(); i++) {
+            this.maxDistances[i] = bands.get(i).maxDistance();
+            this.levels[i] = bands.get(i).lod();
+        }
+        this.beyond = beyond;
+        this.invisible = invisible;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AnimationLod select(final double distance, final boolean visible, final VisibleBounds bounds) {
+        if (!visible) {
+            return this.invisible;
+        }
+        final float size = bounds != null ? Math.max(bounds.width(), bounds.height()) : REFERENCE_SIZE;
+        final double scaled = size > 0 ? distance * REFERENCE_SIZE / size : distance;
+        for (int i = 0; i < this.maxDistances.length; i++) {
+            if (scaled <= this.maxDistances[i]) {
+                return this.levels[i];
+            }
+        }
+        return this.beyond;
+    }
+
+    private record Band(double maxDistance, AnimationLod lod) {
+    }
+
+    public static class Builder {
+        private final List<Band> bands = new ArrayList<>();
+        private AnimationLod beyond = AnimationLod.FROZEN;
+        private AnimationLod invisible = AnimationLod.FROZEN;
+
+        private Builder() {
+        }
+
+        /**
+         * Uses {@code lod} up to {@code maxDistance} blocks (for a humanoid-sized entity).
+         */
+        public Builder band(final double maxDistance, final AnimationLod lod) {
+            this.bands.add(new Band(maxDistance, lod));
+            return this;
+        }
+
+        public Builder beyond(final AnimationLod lod) {
+            this.beyond = lod;
+            return this;
+        }
+
+        public Builder invisible(final AnimationLod lod) {
+            this.invisible = lod;
+            return this;
+        }
+
+        public DistanceLodPolicy build() {
+            final List<Band> sorted = new ArrayList<>(this.bands);
+            sorted.sort(Comparator.comparingDouble(Band::maxDistance));
+            return new DistanceLodPolicy(sorted, this.beyond, this.invisible);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.easecation.bedrockmotion.lod;
+
+import lombok.Getter;
+import net.easecation.bedrockmotion.model.IBoneModel;
+import net.easecation.bedrockmotion.model.PoseSnapshot;
+import net.easecation.bedrockmotion.pack.definitions.VisibleBounds;
+
+/**
+ * Per-entity LOD state shared by the entity's {@code Animator}s and {@code AnimationControllerInstance}s.
+ * <p>
+ * On skipped frames animators still run their timing, start/loop delays, timeline and particle events; they only
+ * skip sampling keyframes, and {@link #endFrame} puts the pose of the last sampled frame back on the model.
+ * Controllers keep evaluating transitions in {@code tick}, so state changes are never delayed by LOD.
+ * <pre>{@code
+ * lod.update(distance, visible, bounds);
+ * lod.beginFrame();
+ * model.resetAllBones();
+ * controller.tick(frameScope);
+ * controller.animate(model);
+ * lod.endFrame(model);
+ * }</pre>
+ */
+public class EntityLod {
+    private final LodPolicy policy;
+    // Spreads throttled entities over frames so they do not all sample on the same tick
+    private final int phase;
+    @Getter
+    private AnimationLod level = AnimationLod.FULL;
+    @Getter
+    private boolean sampling = true;
+    private int frame;
+
+    // Pose of the last sampled frame
+    private final PoseSnapshot pose = new PoseSnapshot();
+    private boolean hasPose;
+
+    public EntityLod(final LodPolicy policy) {
+        this.policy = policy;
+        this.phase = System.identityHashCode(this) & 0xFFFF;
+    }
+
+    /**
+     * Selects the level for the next frame through the policy.
+     */
+    public AnimationLod update(final double distance, final boolean visible, final VisibleBounds bounds) {
+        this.setLevel(this.policy.select(distance, visible, bounds != null ? bounds : VisibleBounds.DEFAULT));
+        return this.level;
+    }
+
+    public void setLevel(final AnimationLod level) {
+        if (!level.equals(this.level)) {
+            // Resample on the first frame at the new level
+            this.hasPose = false;
+        }
+        this.level = level;
+    }
+
+    /**
+     * Decides whether this frame samples animations. Call once per frame before animating.
+     */
+    public void beginFrame() {
+        if (!this.level.isReduced() || !this.hasPose) {
+            this.sampling = true;
+        } else if (this.level.frozen()) {
+            this.sampling = false;
+        } else {
+            this.sampling = (this.frame + this.phase) % this.level.updateInterval() == 0;
+        }
+        this.frame++;
+    }
+
+    /**
+     * Whether an animator with the given blend weight samples its keyframes this frame.
+     */
+    public boolean shouldSample(final float blendWeight) {
+        return this.sampling && blendWeight >= this.level.minBlendWeight();
+    }
+
+    /**
+     * Caches the pose after a sampled frame, or restores the cached pose after a skipped one.
+     */
+    public void endFrame(final IBoneModel model) {
+        if (!this.sampling) {
+            this.pose.restore();
+        } else if (this.level.isReduced()) {
+            this.pose.capture(model);
+            this.hasPose = true;
+        } else {
+            this.hasPose = false;
+        }
+    }
+
+    /**
+     * Drops the cached pose, e.g. after the model was rebuilt.
+     */
+    public void invalidate() {
+        this.hasPose = false;
+        this.pose.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package net.easecation.bedrockmotion.lod;
+
+import net.easecation.bedrockmotion.pack.definitions.VisibleBounds;
+
+/**
+ * Chooses an {@link AnimationLod} for an entity from what the consumer knows about it each tick.
+ */
+@FunctionalInterface
+public interface LodPolicy {
+    LodPolicy FULL = (distance, visible, bounds) -> AnimationLod.FULL;
+
+    /**
+     * @param distance distance from the viewer in blocks
+     * @param visible  false if the entity is outside the frustum (or otherwise not rendered)
+     * @param bounds   the entity's visible bounds, or {@link VisibleBounds#DEFAULT} if unknown
+     */
+    AnimationLod select(double distance, boolean visible, VisibleBounds bounds);
+}
@@ -0,0 +1,74 @@
+package net.easecation.bedrockmotion.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two nanosecond buckets (bucket {@code i} holds values below {@code 2^i} ns).
+ * Coarse, but cheap enough to record every tick; exporters can map the buckets to their own boundaries.
+ */
+public final class LatencyHistogram {
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+        this.buckets[bucket].increment();
+        this.count.increment();
+        this.sumNanos.add(nanos);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getSumNanos() {
+        return this.sumNanos.sum();
+    }
+
+    /**
+     * Upper bound in nanoseconds of bucket {@code index}.
+     */
+    public static long upperBoundNanos(final int index) {
+        return 1L << index;
+    }
+
+    public long[] getBucketCounts() {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Approximate quantile: the upper bound of the bucket containing it.
+     */
+    public long quantileNanos(final double quantile) {
+        final long[] counts = this.getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundNanos(i);
+            }
+        }
+        return upperBoundNanos(BUCKETS - 1);
+    }
+}
@@ -0,0 +1,31 @@
+package net.easecation.bedrockmotion.metrics;
+
+/**
+ * Process-wide {@link MotionMetrics} sink.
+ * <p>
+ * Hot paths check {@link #isEnabled()} before gathering anything, so with the default no-op sink reporting
+ * costs a single field read.
+ */
+public final class Metrics {
+    private static volatile MotionMetrics sink = MotionMetrics.NOOP;
+    private static volatile boolean enabled;
+
+    private Metrics() {
+    }
+
+    /**
+     * Installs a sink, or disables reporting when {@code metrics} is null or {@link MotionMetrics#NOOP}.
+     */
+    public static void install(final MotionMetrics metrics) {
+        sink = metrics != null ? metrics : MotionMetrics.NOOP;
+        enabled = sink != MotionMetrics.NOOP;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static MotionMetrics get() {
+        return sink;
+    }
+}
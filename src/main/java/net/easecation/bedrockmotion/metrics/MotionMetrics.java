@@ -0,0 +1,70 @@
+package net.easecation.bedrockmotion.metrics;
+
+/**
+ * Receives engine metrics. Every method defaults to a no-op, so implementations only override what they export.
+ * <p>
+ * Calls come from the threads that drive animations and must not block. Install an implementation with
+ * {@link Metrics#install(MotionMetrics)}; while none is installed the engine skips reporting entirely.
+ */
+public interface MotionMetrics {
+    MotionMetrics NOOP = new MotionMetrics() {
+    };
+
+    /**
+     * A MoLang parse cache lookup.
+     *
+     * @param cacheSize entries in the cache after the lookup
+     */
+    default void parseCacheLookup(boolean hit, int cacheSize) {
+    }
+
+    /**
+     * One controller or animator sampling pass.
+     *
+     * @param animators animators sampled with a non-zero weight
+     */
+    default void animatorsSampled(int animators) {
+    }
+
+    /**
+     * Bone channel writes (rotation/position/scale) done by one animation sample.
+     */
+    default void bonesWritten(int writes) {
+    }
+
+    default void transitionFired(String controller, String fromState, String toState) {
+    }
+
+    /**
+     * A state started fading out because of a {@code blend_transition}.
+     */
+    default void fadeStarted(String controller) {
+    }
+
+    /**
+     * A MoLang evaluation failed and its fallback value was used.
+     */
+    default void evalError() {
+    }
+
+    /**
+     * Duration of one {@code AnimationControllerInstance.tick}.
+     */
+    default void controllerTickNanos(long nanos) {
+    }
+
+    /**
+     * Duration of one {@code RenderControllerEvaluator.evaluate} call.
+     */
+    default void renderControllerEvalNanos(long nanos) {
+    }
+
+    /**
+     * One {@code AnimationScheduler.tick}.
+     *
+     * @param updated  entities updated
+     * @param deferred entities deferred to a later tick because the budget was spent
+     */
+    default void schedulerTick(int updated, int deferred, long nanos) {
+    }
+}
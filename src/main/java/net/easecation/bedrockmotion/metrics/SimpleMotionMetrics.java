@@ -0,0 +1,82 @@
+package net.easecation.bedrockmotion.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ready-made {@link MotionMetrics} that accumulates everything in {@link LongAdder}s and {@link LatencyHistogram}s,
+ * for exporters that scrape values periodically.
+ */
+@Getter
+public class SimpleMotionMetrics implements MotionMetrics {
+    private final LongAdder parseCacheHits = new LongAdder();
+    private final LongAdder parseCacheMisses = new LongAdder();
+    private volatile int parseCacheSize;
+    private final LongAdder animatorsSampled = new LongAdder();
+    private final LongAdder samplingPasses = new LongAdder();
+    private final LongAdder bonesWritten = new LongAdder();
+    private final LongAdder transitionsFired = new LongAdder();
+    private final LongAdder fadesStarted = new LongAdder();
+    private final LongAdder evalErrors = new LongAdder();
+    private final LatencyHistogram controllerTickLatency = new LatencyHistogram();
+    private final LatencyHistogram renderControllerEvalLatency = new LatencyHistogram();
+    private final LongAdder scheduledUpdates = new LongAdder();
+    private final LongAdder deferredUpdates = new LongAdder();
+    private final LatencyHistogram schedulerTickLatency = new LatencyHistogram();
+
+    @Override
+    public void parseCacheLookup(final boolean hit, final int cacheSize) {
+        (hit ? this.parseCacheHits : this.parseCacheMisses).increment();
+        this.parseCacheSize = cacheSize;
+    }
+
+    @Override
+    public void animatorsSampled(final int animators) {
+        this.animatorsSampled.add(animators);
+        this.samplingPasses.increment();
+    }
+
+    @Override
+    public void bonesWritten(final int writes) {
+        this.bonesWritten.add(writes);
+    }
+
+    @Override
+    public void transitionFired(final String controller, final String fromState, final String toState) {
+        this.transitionsFired.increment();
+    }
+
+    @Override
+    public void fadeStarted(final String controller) {
+        this.fadesStarted.increment();
+    }
+
+    @Override
+    public void evalError() {
+        this.evalErrors.increment();
+    }
+
+    @Override
+    public void controllerTickNanos(final long nanos) {
+        this.controllerTickLatency.record(nanos);
+    }
+
+    @Override
+    public void renderControllerEvalNanos(final long nanos) {
+        this.renderControllerEvalLatency.record(nanos);
+    }
+
+    @Override
+    public void schedulerTick(final int updated, final int deferred, final long nanos) {
+        this.scheduledUpdates.add(updated);
+        this.deferredUpdates.add(deferred);
+        this.schedulerTickLatency.record(nanos);
+    }
+
+    public double getParseCacheHitRatio() {
+        final long hits = this.parseCacheHits.sum();
+        final long total = hits + this.parseCacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,145 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.parser.ast.DoubleExpression;
+import team.unnamed.mocha.parser.ast.Expression;
+import team.unnamed.mocha.parser.ast.TernaryConditionalExpression;
+import team.unnamed.mocha.runtime.Scope;
+import team.unnamed.mocha.runtime.value.NumberValue;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A MoLang expression prepared once at load time: parsed, folded, slot-compiled and classified.
+ * <p>
+ * Constant expressions never reach the interpreter. Two common shapes over a {@link FrameScope} skip it as well:
+ * a bare {@code query.x}/{@code variable.x} read and a {@code query.x ? a : b} select with literal branches
+ * (typical blend weights such as {@code query.is_baby ? 0 : 1}).
+ */
+public final class CompiledExpression {
+    private static final CompiledExpression ZERO = new CompiledExpression("", null, ExpressionKind.CONSTANT, NumberValue.zero());
+
+    private final String source;
+    private final List<Expression> expressions;
+    private final ExpressionKind kind;
+    private final Value constant;
+    // Fast paths, valid when the matching field is set
+    private final SlotExpression slotRead;
+    private final SlotExpression selectCondition;
+    private final Value selectTrue, selectFalse;
+
+    private CompiledExpression(final String source, final List<Expression> expressions, final ExpressionKind kind, final Value constant) {
+        this.source = source;
+        this.expressions = expressions;
+        this.kind = kind;
+        this.constant = constant;
+
+        SlotExpression slotRead = null, selectCondition = null;
+        Value selectTrue = null, selectFalse = null;
+        if (constant == null && expressions != null && expressions.size() == 1) {
+            final Expression expression = expressions.get(0);
+            if (expression instanceof SlotExpression slot && slot.registry() != SlotRegistry.TEMP) {
+                slotRead = slot;
+            } else if (expression instanceof TernaryConditionalExpression ternary
+                    && ternary.condition() instanceof SlotExpression slot && slot.registry() != SlotRegistry.TEMP
+                    && ternary.trueExpression() instanceof DoubleExpression trueValue
+                    && ternary.falseExpression() instanceof DoubleExpression falseValue) {
+                selectCondition = slot;
+                selectTrue = NumberValue.of(trueValue.value());
+                selectFalse = NumberValue.of(falseValue.value());
+            }
+        }
+        this.slotRead = slotRead;
+        this.selectCondition = selectCondition;
+        this.selectTrue = selectTrue;
+        this.selectFalse = selectFalse;
+    }
+
+    /**
+     * Compiles through the engine-wide parse cache.
+     */
+    public static CompiledExpression compile(final String source) throws IOException {
+        return compile(source, MoLangEngine.getParseCache());
+    }
+
+    public static CompiledExpression compile(final String source, final ParseCache cache) throws IOException {
+        if (source == null || source.isEmpty()) {
+            return ZERO;
+        }
+        if (MoLangEngine.isNumericLiteral(source)) {
+            return new CompiledExpression(source, null, ExpressionKind.CONSTANT, NumberValue.of(Double.parseDouble(source)));
+        }
+        final List<Expression> expressions = cache.get(source);
+        ExpressionKind kind = ExpressionAnalyzer.classify(expressions);
+        Value constant = null;
+        if (kind == ExpressionKind.CONSTANT) {
+            constant = ConstantFolder.evaluate(expressions);
+            if (constant == null) {
+                // Let it fail (and be reported) at evaluation time like any other expression
+                kind = ExpressionKind.SIDE_EFFECTING;
+            }
+        }
+        return new CompiledExpression(source, expressions, kind, constant);
+    }
+
+    public String source() {
+        return this.source;
+    }
+
+    public ExpressionKind kind() {
+        return this.kind;
+    }
+
+    public boolean isConstant() {
+        return this.constant != null;
+    }
+
+    /**
+     * @return the value of a constant expression, or null
+     */
+    public Value constant() {
+        return this.constant;
+    }
+
+    public Value eval(final Scope scope) {
+        if (this.constant != null) {
+            return this.constant;
+        }
+        if (this.slotRead != null || this.selectCondition != null) {
+            final Value value = this.evalFast(scope);
+            if (value != null) {
+                return value;
+            }
+        }
+        return MoLangEngine.eval(scope, this.expressions, this.source);
+    }
+
+    public double evalNumber(final Scope scope) {
+        return this.eval(scope).getAsNumber();
+    }
+
+    private Value evalFast(final Scope scope) {
+        final FrameScope frame = FrameScope.unwrap(scope);
+        if (frame == null) {
+            return null;
+        }
+        if (this.slotRead != null) {
+            return bindingOf(frame, this.slotRead).readSlot(this.slotRead.slot());
+        }
+        final Value condition = bindingOf(frame, this.selectCondition).readSlot(this.selectCondition.slot());
+        if (!(condition instanceof NumberValue)) {
+            return null;
+        }
+        return condition.getAsBoolean() ? this.selectTrue : this.selectFalse;
+    }
+
+    private static SlotBinding bindingOf(final FrameScope frame, final SlotExpression slot) {
+        return slot.registry() == SlotRegistry.QUERY ? frame.getQuery() : frame.getVariable();
+    }
+
+    @Override
+    public String toString() {
+        return this.source;
+    }
+}
@@ -0,0 +1,91 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.MochaEngine;
+import team.unnamed.mocha.parser.ast.*;
+import team.unnamed.mocha.runtime.Scope;
+import team.unnamed.mocha.runtime.value.NumberValue;
+import team.unnamed.mocha.runtime.value.StringValue;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.util.List;
+
+/**
+ * Replaces the largest {@link ExpressionKind#CONSTANT} subtrees (e.g. {@code math.pi / 2} or {@code -math.sin(30)})
+ * with the literal they evaluate to. Subtrees that fail to evaluate, or evaluate to something other than a number
+ * or string, are kept as they are.
+ */
+public final class ConstantFolder extends ExpressionTransformer {
+    private static final ConstantFolder INSTANCE = new ConstantFolder();
+    // Only math is needed: anything else is not constant
+    private static final Scope FOLD_SCOPE = MochaEngine.createStandard().scope();
+
+    private ConstantFolder() {
+    }
+
+    public static List<Expression> fold(final List<Expression> expressions) {
+        return INSTANCE.transform(expressions);
+    }
+
+    /**
+     * Evaluates expressions known to be constant.
+     *
+     * @return the value, or null if they cannot be evaluated
+     */
+    static Value evaluate(final List<Expression> expressions) {
+        try {
+            return MoLangEngine.eval(FOLD_SCOPE, expressions);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Expression visitArrayAccess(final ArrayAccessExpression expression) {
+        final Expression folded = this.foldConstant(expression);
+        return folded != null ? folded : super.visitArrayAccess(expression);
+    }
+
+    @Override
+    public Expression visitTernaryConditional(final TernaryConditionalExpression expression) {
+        final Expression folded = this.foldConstant(expression);
+        return folded != null ? folded : super.visitTernaryConditional(expression);
+    }
+
+    @Override
+    public Expression visitUnary(final UnaryExpression expression) {
+        final Expression folded = this.foldConstant(expression);
+        return folded != null ? folded : super.visitUnary(expression);
+    }
+
+    @Override
+    public Expression visitBinary(final BinaryExpression expression) {
+        final Expression folded = this.foldConstant(expression);
+        return folded != null ? folded : super.visitBinary(expression);
+    }
+
+    @Override
+    public Expression visitAccess(final AccessExpression expression) {
+        final Expression folded = this.foldConstant(expression);
+        return folded != null ? folded : super.visitAccess(expression);
+    }
+
+    @Override
+    public Expression visitCall(final CallExpression expression) {
+        final Expression folded = this.foldConstant(expression);
+        return folded != null ? folded : super.visitCall(expression);
+    }
+
+    private Expression foldConstant(final Expression expression) {
+        if (ExpressionAnalyzer.classify(expression) != ExpressionKind.CONSTANT) {
+            return null;
+        }
+        final Value value = evaluate(List.of(expression));
+        if (value instanceof NumberValue) {
+            return new DoubleExpression(value.getAsNumber());
+        }
+        if (value instanceof StringValue) {
+            return new StringExpression(value.getAsString());
+        }
+        return null;
+    }
+}
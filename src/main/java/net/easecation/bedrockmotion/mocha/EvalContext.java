@@ -0,0 +1,114 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.parser.ast.ExpressionVisitor;
+import team.unnamed.mocha.runtime.ExpressionInterpreter;
+import team.unnamed.mocha.runtime.Scope;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.util.Arrays;
+
+/**
+ * Reusable state for one {@link MoLangEngine#eval} call: a read-only scope layered over the caller's scope,
+ * the {@code temp}/{@code t} binding and the interpreter.
+ * <p>
+ * Contexts are pooled per thread as a stack indexed by nesting depth, so an {@code eval} issued from inside
+ * another one (e.g. by a query function) gets its own context instead of clobbering the outer one.
+ */
+@SuppressWarnings("UnstableApiUsage")
+final class EvalContext {
+    private static final Scope EMPTY = Scope.create();
+    private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+
+    private final LayeredScope scope = new LayeredScope(EMPTY);
+    private final SlotBinding temp = new SlotBinding(SlotRegistry.TEMP);
+    private final ExpressionInterpreter<Void> interpreter;
+    private final Pool pool;
+    private Scope parent = EMPTY;
+    private FrameScope frame;
+    private boolean frameResolved;
+
+    private EvalContext(final Pool pool) {
+        this.pool = pool;
+        this.scope.set("temp", this.temp);
+        this.scope.set("t", this.temp);
+        this.scope.readOnly(true);
+        this.interpreter = new ExpressionInterpreter<>(null, this.scope);
+        this.interpreter.warnOnReflectiveFunctionUsage(false);
+    }
+
+    /**
+     * Takes the context for the current nesting depth and binds it to {@code parent}.
+     * Must be paired with {@link #release()} in a finally block.
+     */
+    static EvalContext acquire(final Scope parent) {
+        final EvalContext context = POOL.get().push();
+        context.scope.rebase(parent);
+        context.parent = parent;
+        context.frameResolved = false;
+        context.temp.clear();
+        // Drop a return value left behind by an evaluation that threw
+        context.interpreter.popReturnValue();
+        return context;
+    }
+
+    void release() {
+        // Do not keep the caller's scope reachable from the thread-local pool
+        this.scope.rebase(EMPTY);
+        this.parent = EMPTY;
+        this.frame = null;
+        this.pool.pop();
+    }
+
+    /**
+     * Reads a slot for a {@link SlotExpression} evaluated by the interpreter of the innermost context.
+     *
+     * @return the value, or null if the slot cannot be read directly and the expression must resolve by name
+     */
+    static Value readSlot(final ExpressionVisitor<?> visitor, final SlotRegistry registry, final int slot) {
+        final EvalContext context = POOL.get().top();
+        if (context == null || context.interpreter != visitor) {
+            return null;
+        }
+        if (registry == SlotRegistry.TEMP) {
+            return context.temp.readSlot(slot);
+        }
+        if (!context.frameResolved) {
+            context.frame = FrameScope.unwrap(context.parent);
+            context.frameResolved = true;
+        }
+        if (context.frame == null) {
+            return null;
+        }
+        return (registry == SlotRegistry.QUERY ? context.frame.getQuery() : context.frame.getVariable()).readSlot(slot);
+    }
+
+    ExpressionInterpreter<Void> interpreter() {
+        return this.interpreter;
+    }
+
+    private static final class Pool {
+        private EvalContext[] contexts = new EvalContext[4];
+        private int depth;
+
+        EvalContext push() {
+            if (this.depth == this.contexts.length) {
+                this.contexts = Arrays.copyOf(this.contexts, this.depth * 2);
+            }
+            EvalContext context = this.contexts[this.depth];
+            if (context == null) {
+                context = new EvalContext(this);
+                this.contexts[this.depth] = context;
+            }
+            this.depth++;
+            return context;
+        }
+
+        void pop() {
+            this.depth--;
+        }
+
+        EvalContext top() {
+            return this.depth > 0 ? this.contexts[this.depth - 1] : null;
+        }
+    }
+}
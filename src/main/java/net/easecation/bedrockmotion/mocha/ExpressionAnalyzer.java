@@ -0,0 +1,136 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.parser.ast.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Classifies MoLang expressions into {@link ExpressionKind}s. Anything it does not recognise is
+ * {@link ExpressionKind#SIDE_EFFECTING}, so a classification is never more optimistic than the expression.
+ */
+public final class ExpressionAnalyzer implements ExpressionVisitor<ExpressionKind> {
+    private static final ExpressionAnalyzer INSTANCE = new ExpressionAnalyzer();
+
+    // math functions whose result is not a function of their arguments
+    private static final Set<String> NON_DETERMINISTIC_MATH = Set.of(
+            "random", "random_integer", "die_roll", "die_roll_integer");
+    private static final Set<String> TIME_QUERIES = Set.of("anim_time", "life_time");
+
+    private ExpressionAnalyzer() {
+    }
+
+    public static ExpressionKind classify(final List<Expression> expressions) {
+        ExpressionKind kind = ExpressionKind.CONSTANT;
+        for (int i = 0; i < expressions.size(); i++) {
+            kind = kind.max(expressions.get(i).visit(INSTANCE));
+        }
+        return kind;
+    }
+
+    public static ExpressionKind classify(final Expression expression) {
+        return expression.visit(INSTANCE);
+    }
+
+    @Override
+    public ExpressionKind visit(final Expression expression) {
+        if (expression instanceof SlotExpression) {
+            // Overlaid time queries are never slot-compiled
+            return ExpressionKind.QUERY_DEPENDENT;
+        }
+        return ExpressionKind.SIDE_EFFECTING;
+    }
+
+    @Override
+    public ExpressionKind visitDouble(final DoubleExpression expression) {
+        return ExpressionKind.CONSTANT;
+    }
+
+    @Override
+    public ExpressionKind visitString(final StringExpression expression) {
+        return ExpressionKind.CONSTANT;
+    }
+
+    @Override
+    public ExpressionKind visitIdentifier(final IdentifierExpression expression) {
+        return ExpressionKind.QUERY_DEPENDENT;
+    }
+
+    @Override
+    public ExpressionKind visitArrayAccess(final ArrayAccessExpression expression) {
+        return expression.array().visit(this).max(expression.index().visit(this));
+    }
+
+    @Override
+    public ExpressionKind visitTernaryConditional(final TernaryConditionalExpression expression) {
+        return expression.condition().visit(this)
+                .max(expression.trueExpression().visit(this))
+                .max(expression.falseExpression().visit(this));
+    }
+
+    @Override
+    public ExpressionKind visitUnary(final UnaryExpression expression) {
+        if (expression.op() == UnaryExpression.Op.RETURN) {
+            return ExpressionKind.SIDE_EFFECTING;
+        }
+        return expression.expression().visit(this);
+    }
+
+    @Override
+    public ExpressionKind visitExecutionScope(final ExecutionScopeExpression expression) {
+        return classify(expression.expressions()).max(ExpressionKind.QUERY_DEPENDENT);
+    }
+
+    @Override
+    public ExpressionKind visitBinary(final BinaryExpression expression) {
+        return switch (expression.op()) {
+            case ASSIGN -> ExpressionKind.SIDE_EFFECTING;
+            // Context switch: the right side is evaluated against another entity
+            case ARROW -> ExpressionKind.QUERY_DEPENDENT.max(expression.left().visit(this)).max(expression.right().visit(this));
+            default -> expression.left().visit(this).max(expression.right().visit(this));
+        };
+    }
+
+    @Override
+    public ExpressionKind visitAccess(final AccessExpression expression) {
+        if (expression.object() instanceof IdentifierExpression identifier) {
+            final String namespace = identifier.name().toLowerCase(Locale.ROOT);
+            if (namespace.equals("math")) {
+                return ExpressionKind.CONSTANT;
+            }
+            if ((namespace.equals("query") || namespace.equals("q"))
+                    && TIME_QUERIES.contains(expression.property().toLowerCase(Locale.ROOT))) {
+                return ExpressionKind.TIME_ONLY;
+            }
+            return ExpressionKind.QUERY_DEPENDENT;
+        }
+        return expression.object().visit(this).max(ExpressionKind.QUERY_DEPENDENT);
+    }
+
+    @Override
+    public ExpressionKind visitCall(final CallExpression expression) {
+        ExpressionKind kind;
+        if (expression.function() instanceof AccessExpression access
+                && access.object() instanceof IdentifierExpression identifier) {
+            kind = switch (identifier.name().toLowerCase(Locale.ROOT)) {
+                case "math" -> NON_DETERMINISTIC_MATH.contains(access.property().toLowerCase(Locale.ROOT))
+                        ? ExpressionKind.QUERY_DEPENDENT : ExpressionKind.CONSTANT;
+                case "query", "q" -> ExpressionKind.QUERY_DEPENDENT;
+                default -> ExpressionKind.SIDE_EFFECTING;
+            };
+        } else {
+            // loop, for_each and anything else
+            kind = ExpressionKind.SIDE_EFFECTING;
+        }
+        for (final Expression argument : expression.arguments()) {
+            kind = kind.max(argument.visit(this));
+        }
+        return kind;
+    }
+
+    @Override
+    public ExpressionKind visitStatement(final StatementExpression expression) {
+        return ExpressionKind.SIDE_EFFECTING;
+    }
+}
@@ -0,0 +1,28 @@
+package net.easecation.bedrockmotion.mocha;
+
+/**
+ * What the value of a MoLang expression depends on, from cheapest to most expensive to evaluate.
+ * Determined once per parsed expression by {@link ExpressionAnalyzer}.
+ */
+public enum ExpressionKind {
+    /**
+     * Literals, {@code math} constants and {@code math} functions of constants. Folded at load time.
+     */
+    CONSTANT,
+    /**
+     * Depends only on {@code query.anim_time}/{@code query.life_time} (and constants).
+     */
+    TIME_ONLY,
+    /**
+     * Reads other queries, variables or temps, or is non-deterministic ({@code math.random}).
+     */
+    QUERY_DEPENDENT,
+    /**
+     * Assigns, returns, loops or calls something the analyzer does not know; must be evaluated every time.
+     */
+    SIDE_EFFECTING;
+
+    public ExpressionKind max(final ExpressionKind other) {
+        return other.ordinal() > this.ordinal() ? other : this;
+    }
+}
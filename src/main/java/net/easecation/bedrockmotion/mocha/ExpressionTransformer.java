@@ -0,0 +1,103 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.parser.ast.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds a MoLang AST bottom-up. Subclasses override the {@code visitX} methods they care about;
+ * nodes whose children did not change are returned as-is, so untouched subtrees stay shared.
+ */
+public class ExpressionTransformer implements ExpressionVisitor<Expression> {
+
+    public List<Expression> transform(final List<Expression> expressions) {
+        List<Expression> result = null;
+        for (int i = 0; i < expressions.size(); i++) {
+            final Expression original = expressions.get(i);
+            final Expression transformed = original.visit(this);
+            if (transformed != original && result == null) {
+                result = new ArrayList<>(expressions.subList(0, i));
+            }
+            if (result != null) {
+                result.add(transformed);
+            }
+        }
+        return result != null ? List.copyOf(result) : expressions;
+    }
+
+    @Override
+    public Expression visit(final Expression expression) {
+        // Leaves and node types this transformer does not know about
+        return expression;
+    }
+
+    @Override
+    public Expression visitArrayAccess(final ArrayAccessExpression expression) {
+        final Expression array = expression.array().visit(this);
+        final Expression index = expression.index().visit(this);
+        if (array == expression.array() && index == expression.index()) {
+            return expression;
+        }
+        return new ArrayAccessExpression(array, index);
+    }
+
+    @Override
+    public Expression visitTernaryConditional(final TernaryConditionalExpression expression) {
+        final Expression condition = expression.condition().visit(this);
+        final Expression trueExpression = expression.trueExpression().visit(this);
+        final Expression falseExpression = expression.falseExpression().visit(this);
+        if (condition == expression.condition() && trueExpression == expression.trueExpression()
+                && falseExpression == expression.falseExpression()) {
+            return expression;
+        }
+        return new TernaryConditionalExpression(condition, trueExpression, falseExpression);
+    }
+
+    @Override
+    public Expression visitUnary(final UnaryExpression expression) {
+        final Expression operand = expression.expression().visit(this);
+        if (operand == expression.expression()) {
+            return expression;
+        }
+        return new UnaryExpression(expression.op(), operand);
+    }
+
+    @Override
+    public Expression visitExecutionScope(final ExecutionScopeExpression expression) {
+        final List<Expression> expressions = this.transform(expression.expressions());
+        if (expressions == expression.expressions()) {
+            return expression;
+        }
+        return new ExecutionScopeExpression(expressions);
+    }
+
+    @Override
+    public Expression visitBinary(final BinaryExpression expression) {
+        final Expression left = expression.left().visit(this);
+        final Expression right = expression.right().visit(this);
+        if (left == expression.left() && right == expression.right()) {
+            return expression;
+        }
+        return new BinaryExpression(expression.op(), left, right);
+    }
+
+    @Override
+    public Expression visitAccess(final AccessExpression expression) {
+        final Expression object = expression.object().visit(this);
+        if (object == expression.object()) {
+            return expression;
+        }
+        return new AccessExpression(object, expression.property());
+    }
+
+    @Override
+    public Expression visitCall(final CallExpression expression) {
+        final Expression function = expression.function().visit(this);
+        final List<Expression> arguments = this.transform(expression.arguments());
+        if (function == expression.function() && arguments == expression.arguments()) {
+            return expression;
+        }
+        return new CallExpression(function, arguments);
+    }
+}
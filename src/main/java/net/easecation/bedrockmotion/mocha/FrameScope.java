@@ -0,0 +1,163 @@
+package net.easecation.bedrockmotion.mocha;
+
+import lombok.Getter;
+import team.unnamed.mocha.runtime.Scope;
+import team.unnamed.mocha.runtime.value.ObjectProperty;
+import team.unnamed.mocha.runtime.value.Value;
+
+
+/**
+ * Per-entity frame scope whose {@code query} and {@code variable} namespaces are {@link SlotBinding}s.
+ * Slot-compiled expressions evaluated over it (directly, or through the {@link LayeredScope}/{@link OverlayBinding}
+ * layers the engine adds while animating) read values with array loads instead of name lookups.
+ * <p>
+ * Everything else (e.g. {@code math}) is resolved from the base scope.
+ * <p>
+ * Create one per entity and keep it: the typed setters write in place, so a tick that sets the same values
+ * allocates nothing, and {@link #hasChanges()} tells whether anything changed since {@link #clearChanges()}.
+ */
+@Getter
+@SuppressWarnings("UnstableApiUsage")
+public class FrameScope extends LayeredScope {
+    private final SlotBinding query = new SlotBinding(SlotRegistry.QUERY);
+    private final SlotBinding variable = new SlotBinding(SlotRegistry.VARIABLE);
+
+    public FrameScope(final Scope base) {
+        super(base);
+        this.bindNamespaces();
+    }
+
+    /**
+     * Slot of a query name, for consumers that write {@link #getQuery()} by slot. Resolve once, not per tick.
+     */
+    public static int querySlot(final String name) {
+        return SlotRegistry.QUERY.slotOf(name);
+    }
+
+    /**
+     * Slot of a variable name, for consumers that write {@link #getVariable()} by slot.
+     */
+    public static int variableSlot(final String name) {
+        return SlotRegistry.VARIABLE.slotOf(name);
+    }
+
+    public boolean setQuery(final int slot, final double value) {
+        return this.query.setSlot(slot, value);
+    }
+
+    /**
+     * Sets a flag query; MoLang reads it as 1.0 or 0.0.
+     */
+    public boolean setQuery(final int slot, final boolean value) {
+        return this.query.setSlot(slot, value ? 1 : 0);
+    }
+
+    public boolean setQueryString(final int slot, final String value) {
+        return this.query.setSlotValue(slot, value == null ? null : Value.of(value));
+    }
+
+    public boolean setVariable(final int slot, final double value) {
+        return this.variable.setSlot(slot, value);
+    }
+
+    public boolean setVariable(final int slot, final boolean value) {
+        return this.variable.setSlot(slot, value ? 1 : 0);
+    }
+
+    public boolean setVariableString(final int slot, final String value) {
+        return this.variable.setSlotValue(slot, value == null ? null : Value.of(value));
+    }
+
+    /**
+     * @return true if a query or variable value changed since the last {@link #clearChanges()}
+     */
+    public boolean hasChanges() {
+        return this.query.hasChanges() || this.variable.hasChanges();
+    }
+
+    public boolean isQueryChanged(final int slot) {
+        return this.query.isChanged(slot);
+    }
+
+    public boolean isVariableChanged(final int slot) {
+        return this.variable.isChanged(slot);
+    }
+
+    /**
+     * Starts a new change window, typically at the start of each tick.
+     */
+    public void clearChanges() {
+        this.query.clearChanges();
+        this.variable.clearChanges();
+    }
+
+    /**
+     * Sum of both namespace versions; it differs from an earlier value exactly when something changed in between.
+     */
+    public long getVersion() {
+        return this.query.getVersion() + this.variable.getVersion();
+    }
+
+    @Override
+    public void reset(final Scope newParent) {
+        super.reset(newParent);
+        this.query.clear();
+        this.variable.clear();
+        this.bindNamespaces();
+    }
+
+    /**
+     * Sets a name on this layer. The {@code query}/{@code variable} namespaces (and their short forms) are fixed
+     * {@link SlotBinding}s that compiled expressions hold slots into, so they cannot be replaced: write their values
+     * through {@link #setQuery}/{@link #setVariable} or {@link #getQuery()}/{@link #getVariable()} instead, or layer
+     * a {@link LayeredScope} with an {@link OverlayBinding} on top as the animators do.
+     *
+     * @throws UnsupportedOperationException if {@code name} is one of the slot namespaces
+     */
+    @Override
+    public boolean set(final String name, final Value value) {
+        if (SlotCompiler.registryOf(name) != null) {
+            throw new UnsupportedOperationException("The " + name + " namespace of a frame scope cannot be replaced; write into its slots instead");
+        }
+        return super.set(name, value);
+    }
+
+    private void bindNamespaces() {
+        super.set("query", this.query);
+        super.set("q", this.query);
+        super.set("variable", this.variable);
+        super.set("v", this.variable);
+    }
+
+    /**
+     * Finds the frame scope below the engine's evaluation layers, or null if the scope is not backed by one
+     * or a layer replaces its {@code query}/{@code variable} binding with something other than an overlay of it.
+     */
+    static FrameScope unwrap(final Scope scope) {
+        Scope current = scope;
+        while (current instanceof LayeredScope layered && !(current instanceof FrameScope)) {
+            current = layered.getParent();
+        }
+        if (!(current instanceof FrameScope frame)) {
+            return null;
+        }
+        for (Scope layer = scope; layer != frame; layer = ((LayeredScope) layer).getParent()) {
+            final LayeredScope layered = (LayeredScope) layer;
+            if (!isOverlayOf(layered.getLocalProperty("query"), frame.query)
+                    || !isOverlayOf(layered.getLocalProperty("q"), frame.query)
+                    || !isOverlayOf(layered.getLocalProperty("variable"), frame.variable)
+                    || !isOverlayOf(layered.getLocalProperty("v"), frame.variable)) {
+                return null;
+            }
+        }
+        return frame;
+    }
+
+    private static boolean isOverlayOf(final ObjectProperty property, final SlotBinding binding) {
+        if (property == null) {
+            return true;
+        }
+        final Value value = property.value();
+        return value == binding || (value instanceof OverlayBinding overlay && overlay.getParent() == binding);
+    }
+}
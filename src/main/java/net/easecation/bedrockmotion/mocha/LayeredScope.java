@@ -32,6 +32,24 @@ public class LayeredScope implements Scope {
         this.readOnly = false;
     }
 
+    /**
+     * Swaps the parent scope, keeping local entries and the read-only flag.
+     */
+    public void rebase(Scope newParent) {
+        this.parent = newParent;
+    }
+
+    public Scope getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns a property set on this layer only, ignoring the parent.
+     */
+    public ObjectProperty getLocalProperty(String name) {
+        return local.get(name);
+    }
+
     @Override
     public ObjectProperty getProperty(String name) {
         ObjectProperty prop = local.get(name);
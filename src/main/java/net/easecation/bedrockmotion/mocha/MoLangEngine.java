@@ -17,82 +17,143 @@
  */
 package net.easecation.bedrockmotion.mocha;
 
+import jdk.jfr.EventType;
+import net.easecation.bedrockmotion.jfr.SlowEvalEvent;
 import team.unnamed.mocha.parser.MolangParser;
 import team.unnamed.mocha.parser.ast.Expression;
 import team.unnamed.mocha.runtime.ExpressionInterpreter;
 import team.unnamed.mocha.runtime.Scope;
-import team.unnamed.mocha.runtime.value.MutableObjectBinding;
 import team.unnamed.mocha.runtime.value.NumberValue;
 import team.unnamed.mocha.runtime.value.Value;
 
 import java.io.IOException;
 import java.io.Reader;
-import java.io.StringReader;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 
 @SuppressWarnings("UnstableApiUsage")
 public class MoLangEngine {
-    private static final ConcurrentHashMap<String, List<Expression>> PARSE_CACHE = new ConcurrentHashMap<>();
-    private static final int MAX_CACHE_SIZE = 4096;
-    private static final ThreadLocal<LayeredScope> EVAL_SCOPE =
-            ThreadLocal.withInitial(() -> new LayeredScope(Scope.create()));
+    private static volatile ParseCache parseCache = new ParseCache();
+    // Checked before creating the event so that evaluations allocate nothing while it is not recorded
+    private static final EventType SLOW_EVAL_EVENT = EventType.getEventType(SlowEvalEvent.class);
 
+    /**
+     * Evaluates through the engine-wide parse cache.
+     * <p>
+     * The evaluation context (scope layer, {@code temp} binding and interpreter) is pooled per thread, so a call
+     * allocates no scaffolding. It is not allocation-free, though: results are mocha {@link Value}s, so an
+     * evaluation that computes a new number (any arithmetic, a numeric literal string) boxes it in a fresh
+     * {@link NumberValue}, and so may the interpreter's intermediate results. Only reads of an already boxed value,
+     * e.g. a bare {@code query.x} slot, return without allocating. Hot paths that need a primitive should go
+     * through {@link CompiledExpression#evalNumber}, which skips the interpreter for constants and simple slot reads.
+     */
     public static Value eval(final Scope scope, final String expression) throws IOException {
         if (expression == null || expression.isEmpty()) {
             return NumberValue.zero();
         }
 
         // Fast path: numeric literals (e.g. "0", "1.5", "-0.3") skip parse entirely
-        final char first = expression.charAt(0);
-        if ((first >= '0' && first <= '9') || first == '-' || first == '.') {
-            try {
-                return NumberValue.of(Double.parseDouble(expression));
-            } catch (NumberFormatException ignored) {
-                // Not a pure number, fall through to normal parse
-            }
+        final Value literal = literal(expression);
+        if (literal != null) {
+            return literal;
         }
 
-        return eval(scope, parse(expression));
+        return eval(scope, parse(expression), expression);
     }
 
-    public static Value eval(final Scope scope, final List<Expression> expressions) {
-        final LayeredScope localScope = EVAL_SCOPE.get();
-        localScope.reset(scope);
-        final MutableObjectBinding tempBinding = new MutableObjectBinding();
-        localScope.set("temp", tempBinding);
-        localScope.set("t", tempBinding);
-        localScope.readOnly(true);
+    /**
+     * Evaluates through the given parse cache instead of the engine-wide one.
+     */
+    public static Value eval(final Scope scope, final String expression, final ParseCache cache) throws IOException {
+        if (expression == null || expression.isEmpty()) {
+            return NumberValue.zero();
+        }
+        final Value literal = literal(expression);
+        if (literal != null) {
+            return literal;
+        }
+        return eval(scope, cache.get(expression), expression);
+    }
 
-        final ExpressionInterpreter<Void> evaluator = new ExpressionInterpreter<>(null, localScope);
-        evaluator.warnOnReflectiveFunctionUsage(false);
+    public static Value eval(final Scope scope, final List<Expression> expressions) {
+        return eval(scope, expressions, null);
+    }
 
+    static Value eval(final Scope scope, final List<Expression> expressions, final String source) {
+        final SlowEvalEvent event = SLOW_EVAL_EVENT.isEnabled() ? new SlowEvalEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final EvalContext context = EvalContext.acquire(scope);
         Value lastResult = NumberValue.zero();
-        for (Expression expression : expressions) {
-            lastResult = expression.visit(evaluator);
-            Value returnValue = evaluator.popReturnValue();
-            if (returnValue != null) {
-                lastResult = returnValue;
-                break;
+        try {
+            final ExpressionInterpreter<Void> evaluator = context.interpreter();
+            // Indexed loop: no iterator allocation per call
+            for (int i = 0, size = expressions.size(); i < size; i++) {
+                lastResult = expressions.get(i).visit(evaluator);
+                Value returnValue = evaluator.popReturnValue();
+                if (returnValue != null) {
+                    lastResult = returnValue;
+                    break;
+                }
             }
+        } finally {
+            context.release();
         }
 
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.expression = source != null ? source : expressions.toString();
+                event.commit();
+            }
+        }
         return lastResult;
     }
 
     public static List<Expression> parse(final String expression) throws IOException {
-        List<Expression> cached = PARSE_CACHE.get(expression);
-        if (cached != null) {
-            return cached;
-        }
+        return parseCache.get(expression);
+    }
 
-        try (final StringReader reader = new StringReader(expression)) {
-            List<Expression> parsed = parse(reader);
-            if (PARSE_CACHE.size() < MAX_CACHE_SIZE) {
-                PARSE_CACHE.put(expression, parsed);
+    public static List<Expression> parse(final String expression, final ParseCache cache) throws IOException {
+        return cache.get(expression);
+    }
+
+    /**
+     * True for strings that {@link #eval(Scope, String)} answers without parsing.
+     */
+    static boolean isNumericLiteral(final String expression) {
+        return literal(expression) != null;
+    }
+
+    private static Value literal(final String expression) {
+        final char first = expression.charAt(0);
+        if ((first >= '0' && first <= '9') || first == '-' || first == '.') {
+            try {
+                return NumberValue.of(Double.parseDouble(expression));
+            } catch (NumberFormatException ignored) {
+                // Not a pure number, fall through to normal parse
             }
-            return parsed;
         }
+        return null;
+    }
+
+    /**
+     * The engine-wide cache used by {@link #parse(String)} and {@link #eval(Scope, String)}.
+     */
+    public static ParseCache getParseCache() {
+        return parseCache;
+    }
+
+    /**
+     * Replaces the engine-wide parse cache, e.g. with a larger one for servers with big custom packs.
+     */
+    public static void setParseCache(final ParseCache cache) {
+        parseCache = Objects.requireNonNull(cache, "cache");
+    }
+
+    public static int getParseCacheSize() {
+        return parseCache.size();
     }
 
     public static List<Expression> parse(final Reader reader) throws IOException {
@@ -27,6 +27,10 @@ public class OverlayBinding extends MutableObjectBinding {
         this.parent = newParent;
     }
 
+    public ObjectValue getParent() {
+        return parent;
+    }
+
     @Override
     public ObjectProperty getProperty(String name) {
         ObjectProperty prop = super.getProperty(name);
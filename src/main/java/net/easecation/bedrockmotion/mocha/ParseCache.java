@@ -0,0 +1,198 @@
+package net.easecation.bedrockmotion.mocha;
+
+import net.easecation.bedrockmotion.metrics.Metrics;
+import team.unnamed.mocha.parser.ast.Expression;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of parsed MoLang expressions.
+ * <p>
+ * Lookups are lock-free. When an insert pushes the cache over its capacity, one thread evicts the least
+ * valuable eighth of the entries in a single pass: lowest access frequency first, least recently used among
+ * equals. Frequencies are halved after every pass so expressions that were hot once do not stay forever.
+ * Parsed expressions are constant-folded ({@link ConstantFolder}) and slot-compiled ({@link SlotCompiler}),
+ * immutable and shared between all callers.
+ */
+public class ParseCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_FREQUENCY = 255;
+
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Logical clock for recency; racy increments only lose precision, never correctness
+    private long clock;
+
+    public ParseCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParseCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16));
+    }
+
+    /**
+     * Returns the parsed expression, parsing and caching it on a miss.
+     */
+    public List<Expression> get(final String expression) throws IOException {
+        final Entry entry = this.entries.get(expression);
+        if (entry != null) {
+            entry.touch(++this.clock);
+            this.hits.increment();
+            if (Metrics.isEnabled()) {
+                Metrics.get().parseCacheLookup(true, this.entries.size());
+            }
+            return entry.expressions;
+        }
+
+        this.misses.increment();
+        final List<Expression> parsed = compile(expression);
+        final Entry existing = this.entries.putIfAbsent(expression, new Entry(parsed, ++this.clock));
+        if (existing == null && this.entries.size() > this.capacity) {
+            this.evict();
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.get().parseCacheLookup(false, this.entries.size());
+        }
+        return existing != null ? existing.expressions : parsed;
+    }
+
+    /**
+     * Returns the cached expression without parsing or counting a lookup, or null.
+     */
+    public List<Expression> getIfPresent(final String expression) {
+        final Entry entry = this.entries.get(expression);
+        return entry != null ? entry.expressions : null;
+    }
+
+    /**
+     * Parses and caches expressions ahead of time, e.g. everything a pack will evaluate.
+     * Blank strings and numeric literals (which {@link MoLangEngine#eval} never parses) are skipped,
+     * and so are expressions that fail to parse.
+     *
+     * @return the number of expressions added to the cache
+     */
+    public int prewarm(final Iterable<String> expressions) {
+        int added = 0;
+        for (final String expression : expressions) {
+            if (expression == null || expression.isBlank() || MoLangEngine.isNumericLiteral(expression)
+                    || this.entries.containsKey(expression)) {
+                continue;
+            }
+            try {
+                if (this.entries.putIfAbsent(expression, new Entry(compile(expression), ++this.clock)) == null) {
+                    added++;
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // Reported when the expression is evaluated
+            }
+        }
+        if (this.entries.size() > this.capacity) {
+            this.evict();
+        }
+        return added;
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public Stats getStats() {
+        return new Stats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.entries.size(), this.capacity);
+    }
+
+    private static List<Expression> compile(final String expression) throws IOException {
+        try (final StringReader reader = new StringReader(expression)) {
+            return SlotCompiler.compile(ConstantFolder.fold(MoLangEngine.parse(reader)));
+        }
+    }
+
+    private void evict() {
+        if (!this.evictionLock.tryLock()) {
+            // Another thread is already evicting
+            return;
+        }
+        try {
+            final int size = this.entries.size();
+            if (size <= this.capacity) {
+                return;
+            }
+            final int target = this.capacity - this.capacity / 8;
+            // Snapshot the scores: lookups keep updating them while we sort
+            final List<Candidate> candidates = new ArrayList<>(size);
+            for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                final Entry value = entry.getValue();
+                candidates.add(new Candidate(entry.getKey(), value, value.frequency, value.lastAccess));
+            }
+            candidates.sort(Comparator.comparingInt(Candidate::frequency).thenComparingLong(Candidate::lastAccess));
+
+            int removed = 0;
+            final int toRemove = candidates.size() - target;
+            for (final Candidate candidate : candidates) {
+                if (removed < toRemove) {
+                    if (this.entries.remove(candidate.key(), candidate.entry())) {
+                        removed++;
+                    }
+                } else {
+                    candidate.entry().frequency >>= 1;
+                }
+            }
+            this.evictions.add(removed);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+        public double hitRatio() {
+            final long total = this.hits + this.misses;
+            return total == 0 ? 0 : (double) this.hits / total;
+        }
+    }
+
+    private record Candidate(String key, Entry entry, int frequency, long lastAccess) {
+    }
+
+    private static final class Entry {
+        final List<Expression> expressions;
+        volatile int frequency;
+        volatile long lastAccess;
+
+        Entry(final List<Expression> expressions, final long now) {
+            this.expressions = expressions;
+            this.frequency = 1;
+            this.lastAccess = now;
+        }
+
+        void touch(final long now) {
+            if (this.frequency < MAX_FREQUENCY) {
+                this.frequency++;
+            }
+            this.lastAccess = now;
+        }
+    }
+}
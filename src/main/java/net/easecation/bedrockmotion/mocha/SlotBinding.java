@@ -0,0 +1,265 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.runtime.value.MutableObjectBinding;
+import team.unnamed.mocha.runtime.value.NumberValue;
+import team.unnamed.mocha.runtime.value.ObjectProperty;
+import team.unnamed.mocha.runtime.value.Value;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Binding for one MoLang namespace whose values live in arrays indexed by {@link SlotRegistry} slot.
+ * Slot-compiled expressions ({@link SlotExpression}) read them with an array load; name-based access through
+ * {@link #getProperty}/{@link #set} keeps working and sees the same values.
+ * <p>
+ * Numbers are stored unboxed and boxed at most once per change. Writes that store the value already present
+ * are not changes; every real change marks its slot until {@link #clearChanges()} and bumps {@link #getVersion()}.
+ */
+@SuppressWarnings("UnstableApiUsage")
+public class SlotBinding extends MutableObjectBinding {
+    private final SlotRegistry registry;
+    private double[] values;
+    // Boxed numbers (lazily) or non-numeric values
+    private Value[] objects;
+    private boolean[] present;
+    // Number of set slots, so clearing an untouched binding (e.g. an eval's temp binding) costs nothing
+    private int presentCount;
+    // Last property handed out per slot, reused while the slot holds the same boxed value
+    private ObjectProperty[] properties;
+    private long[] changed;
+    private int changedCount;
+    private long version;
+
+    public SlotBinding(final SlotRegistry registry) {
+        this.registry = registry;
+        final int capacity = Math.max(16, registry.size());
+        this.values = new double[capacity];
+        this.objects = new Value[capacity];
+        this.present = new boolean[capacity];
+        this.properties = new ObjectProperty[capacity];
+        this.changed = new long[(capacity + 63) >>> 6];
+    }
+
+    public SlotRegistry getRegistry() {
+        return this.registry;
+    }
+
+    /**
+     * @return true if the stored value changed
+     */
+    public boolean setSlot(final int slot, final double value) {
+        if (slot >= this.values.length) {
+            this.grow(slot);
+        }
+        final Value current = this.objects[slot];
+        if (this.present[slot] && this.values[slot] == value && (current == null || current instanceof NumberValue)) {
+            return false;
+        }
+        this.values[slot] = value;
+        this.objects[slot] = null;
+        this.markPresent(slot);
+        this.markChanged(slot);
+        return true;
+    }
+
+    /**
+     * Stores any MoLang value; numbers are stored unboxed.
+     *
+     * @return true if the stored value changed
+     */
+    public boolean setSlotValue(final int slot, final Value value) {
+        if (value == null) {
+            return this.clearSlot(slot);
+        }
+        if (value instanceof NumberValue) {
+            return this.setSlot(slot, value.getAsNumber());
+        }
+        if (slot >= this.values.length) {
+            this.grow(slot);
+        }
+        final Value current = this.objects[slot];
+        if (this.present[slot] && current != null && !(current instanceof NumberValue) && current.equals(value)) {
+            return false;
+        }
+        this.values[slot] = 0;
+        this.objects[slot] = value;
+        this.markPresent(slot);
+        this.markChanged(slot);
+        return true;
+    }
+
+    public double getSlot(final int slot) {
+        return slot < this.values.length ? this.values[slot] : 0;
+    }
+
+    public boolean hasSlot(final int slot) {
+        return slot < this.present.length && this.present[slot];
+    }
+
+    /**
+     * @return true if the slot held a value
+     */
+    public boolean clearSlot(final int slot) {
+        if (slot >= this.present.length || !this.present[slot]) {
+            return false;
+        }
+        this.present[slot] = false;
+        this.presentCount--;
+        this.objects[slot] = null;
+        this.properties[slot] = null;
+        this.markChanged(slot);
+        return true;
+    }
+
+    /**
+     * Returns the value of a slot as a MoLang value, or null if it is not set.
+     */
+    public Value readSlot(final int slot) {
+        if (slot >= this.present.length || !this.present[slot]) {
+            return null;
+        }
+        Value value = this.objects[slot];
+        if (value == null) {
+            value = NumberValue.of(this.values[slot]);
+            this.objects[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Removes every value, keeping the allocated arrays. Counts as a change for every slot that was set.
+     * Returns immediately when nothing is set, and stops scanning once the last set slot is cleared.
+     */
+    public void clear() {
+        for (int slot = 0; this.presentCount > 0; slot++) {
+            if (this.present[slot]) {
+                this.present[slot] = false;
+                this.presentCount--;
+                this.objects[slot] = null;
+                this.properties[slot] = null;
+                this.markChanged(slot);
+            }
+        }
+    }
+
+    public boolean isChanged(final int slot) {
+        return slot < this.present.length && (this.changed[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public boolean hasChanges() {
+        return this.changedCount > 0;
+    }
+
+    public int getChangedCount() {
+        return this.changedCount;
+    }
+
+    /**
+     * Returns the next changed slot at or after {@code fromSlot}, or -1. Iterate with
+     * {@code for (int s = b.nextChangedSlot(0); s >= 0; s = b.nextChangedSlot(s + 1))}.
+     */
+    public int nextChangedSlot(final int fromSlot) {
+        int word = fromSlot >>> 6;
+        if (word >= this.changed.length) {
+            return -1;
+        }
+        long bits = this.changed[word] & (-1L << fromSlot);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == this.changed.length) {
+                return -1;
+            }
+            bits = this.changed[word];
+        }
+    }
+
+    public void clearChanges() {
+        if (this.changedCount > 0) {
+            Arrays.fill(this.changed, 0);
+            this.changedCount = 0;
+        }
+    }
+
+    /**
+     * Incremented on every change; compare with a remembered value to detect changes across frames.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public ObjectProperty getProperty(final String name) {
+        final int slot = this.registry.find(name);
+        if (slot >= 0 && this.hasSlot(slot)) {
+            return this.propertyOf(slot);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean set(final String name, final Value value) {
+        if (value == null) {
+            final int slot = this.registry.find(name);
+            if (slot >= 0) {
+                this.clearSlot(slot);
+            }
+            return true;
+        }
+        this.setSlotValue(this.registry.slotOf(name), value);
+        return true;
+    }
+
+    @Override
+    public Map<String, ObjectProperty> entries() {
+        final Map<String, ObjectProperty> entries = new HashMap<>();
+        for (int slot = 0; slot < this.present.length; slot++) {
+            if (this.present[slot]) {
+                entries.put(this.registry.nameOf(slot).toLowerCase(Locale.ROOT), this.propertyOf(slot));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Property of a set slot. A named read allocates only when the value changed since the previous one.
+     */
+    private ObjectProperty propertyOf(final int slot) {
+        final Value value = this.readSlot(slot);
+        ObjectProperty property = this.properties[slot];
+        if (property == null || property.value() != value) {
+            property = ObjectProperty.property(value, false);
+            this.properties[slot] = property;
+        }
+        return property;
+    }
+
+    private void markPresent(final int slot) {
+        if (!this.present[slot]) {
+            this.present[slot] = true;
+            this.presentCount++;
+        }
+    }
+
+    private void markChanged(final int slot) {
+        final long mask = 1L << slot;
+        if ((this.changed[slot >>> 6] & mask) == 0) {
+            this.changed[slot >>> 6] |= mask;
+            this.changedCount++;
+        }
+        this.version++;
+    }
+
+    private void grow(final int slot) {
+        final int capacity = Math.max(slot + 1, this.values.length * 2);
+        this.values = Arrays.copyOf(this.values, capacity);
+        this.objects = Arrays.copyOf(this.objects, capacity);
+        this.present = Arrays.copyOf(this.present, capacity);
+        this.properties = Arrays.copyOf(this.properties, capacity);
+        this.changed = Arrays.copyOf(this.changed, (capacity + 63) >>> 6);
+    }
+}
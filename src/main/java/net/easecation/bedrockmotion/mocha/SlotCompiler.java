@@ -0,0 +1,70 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.parser.ast.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rewrites {@code query.x}, {@code variable.x} and {@code temp.x} reads (and their {@code q}/{@code v}/{@code t}
+ * aliases) into {@link SlotExpression}s. Assignment targets and function calls such as {@code query.position(0)}
+ * are left alone, and so are the queries that animators and controllers overlay per evaluation.
+ */
+public final class SlotCompiler extends ExpressionTransformer {
+    /**
+     * Queries overridden through an {@link OverlayBinding} while animating; they must keep resolving by name.
+     */
+    public static final Set<String> OVERLAY_QUERIES = Set.of(
+            "anim_time", "life_time", "any_animation_finished", "all_animations_finished");
+
+    private static final SlotCompiler INSTANCE = new SlotCompiler();
+
+    private SlotCompiler() {
+    }
+
+    public static List<Expression> compile(final List<Expression> expressions) {
+        return INSTANCE.transform(expressions);
+    }
+
+    static SlotRegistry registryOf(final String identifier) {
+        return switch (identifier.toLowerCase(Locale.ROOT)) {
+            case "query", "q" -> SlotRegistry.QUERY;
+            case "variable", "v" -> SlotRegistry.VARIABLE;
+            case "temp", "t" -> SlotRegistry.TEMP;
+            default -> null;
+        };
+    }
+
+    @Override
+    public Expression visitAccess(final AccessExpression expression) {
+        if (expression.object() instanceof IdentifierExpression identifier) {
+            final SlotRegistry registry = registryOf(identifier.name());
+            if (registry != null) {
+                final String property = expression.property().toLowerCase(Locale.ROOT);
+                if (registry == SlotRegistry.QUERY && OVERLAY_QUERIES.contains(property)) {
+                    return expression;
+                }
+                return new SlotExpression(registry, registry.slotOf(property), expression);
+            }
+        }
+        return super.visitAccess(expression);
+    }
+
+    @Override
+    public Expression visitBinary(final BinaryExpression expression) {
+        if (expression.op() != BinaryExpression.Op.ASSIGN) {
+            return super.visitBinary(expression);
+        }
+        // The interpreter resolves assignment targets by name
+        final Expression right = expression.right().visit(this);
+        return right == expression.right() ? expression : new BinaryExpression(expression.op(), expression.left(), right);
+    }
+
+    @Override
+    public Expression visitCall(final CallExpression expression) {
+        // Keep the callee (e.g. query.position) as a name lookup, only compile the arguments
+        final List<Expression> arguments = this.transform(expression.arguments());
+        return arguments == expression.arguments() ? expression : new CallExpression(expression.function(), arguments);
+    }
+}
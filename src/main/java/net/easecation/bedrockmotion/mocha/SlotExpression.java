@@ -0,0 +1,51 @@
+package net.easecation.bedrockmotion.mocha;
+
+import team.unnamed.mocha.parser.ast.AccessExpression;
+import team.unnamed.mocha.parser.ast.Expression;
+import team.unnamed.mocha.parser.ast.ExpressionVisitor;
+import team.unnamed.mocha.runtime.value.Value;
+
+/**
+ * A {@code query.x}/{@code variable.x}/{@code temp.x} read resolved to a {@link SlotRegistry} slot by {@link SlotCompiler}.
+ * <p>
+ * When evaluated by {@link MoLangEngine} over a {@link FrameScope} the value is an array load. In every other case
+ * (another visitor, a plain scope, a value that is not numeric) it behaves exactly like the original access.
+ */
+public final class SlotExpression implements Expression {
+    private final SlotRegistry registry;
+    private final int slot;
+    private final AccessExpression original;
+
+    public SlotExpression(final SlotRegistry registry, final int slot, final AccessExpression original) {
+        this.registry = registry;
+        this.slot = slot;
+        this.original = original;
+    }
+
+    public SlotRegistry registry() {
+        return this.registry;
+    }
+
+    public int slot() {
+        return this.slot;
+    }
+
+    public AccessExpression original() {
+        return this.original;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R visit(final ExpressionVisitor<R> visitor) {
+        final Value value = EvalContext.readSlot(visitor, this.registry, this.slot);
+        if (value != null) {
+            return (R) value;
+        }
+        return this.original.visit(visitor);
+    }
+
+    @Override
+    public String toString() {
+        return this.registry.getNamespace() + "." + this.registry.nameOf(this.slot);
+    }
+}
@@ -0,0 +1,64 @@
+package net.easecation.bedrockmotion.mocha;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns stable integer slots to the names of one MoLang namespace ({@code query}, {@code variable}, {@code temp}).
+ * Names are case-insensitive and slots are never reused, so a slot resolved at compile time stays valid for the
+ * lifetime of the process.
+ */
+public final class SlotRegistry {
+    public static final SlotRegistry QUERY = new SlotRegistry("query");
+    public static final SlotRegistry VARIABLE = new SlotRegistry("variable");
+    public static final SlotRegistry TEMP = new SlotRegistry("temp");
+
+    private final String namespace;
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[0];
+
+    private SlotRegistry(final String namespace) {
+        this.namespace = namespace;
+    }
+
+    /**
+     * Returns the slot of a name, registering it if needed.
+     */
+    public int slotOf(final String name) {
+        final String key = name.toLowerCase(Locale.ROOT);
+        final Integer slot = this.slots.get(key);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (this) {
+            return this.slots.computeIfAbsent(key, k -> {
+                final String[] grown = Arrays.copyOf(this.names, this.names.length + 1);
+                grown[grown.length - 1] = k;
+                this.names = grown;
+                return grown.length - 1;
+            });
+        }
+    }
+
+    /**
+     * Returns the slot of a name, or -1 if it was never registered.
+     */
+    public int find(final String name) {
+        final Integer slot = this.slots.get(name.toLowerCase(Locale.ROOT));
+        return slot != null ? slot : -1;
+    }
+
+    public String nameOf(final int slot) {
+        return this.names[slot];
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    public String getNamespace() {
+        return this.namespace;
+    }
+}
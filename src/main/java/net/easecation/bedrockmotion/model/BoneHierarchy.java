@@ -0,0 +1,192 @@
+package net.easecation.bedrockmotion.model;
+
+import net.easecation.bedrockmotion.pack.definitions.Skeleton;
+import net.easecation.bedrockmotion.util.MathUtil;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Model-space matrices of every bone of a {@link Skeleton}, computed from the local rotation/offset/scale the engine
+ * writes to an {@link IBoneModel}. Used for locator positions (particles, leashes) and bone-attached hitboxes on sides
+ * that do not render.
+ * <p>
+ * {@link #update()} only recomputes bones whose local transform changed since the previous update, plus their
+ * descendants. Output is in model pixels in Blockbench's convention: X is mirrored compared to the geometry file,
+ * rotations apply Z, then Y, then X around the pivot. Divide by 16 and apply the entity's position and body yaw for
+ * world coordinates.
+ */
+public class BoneHierarchy {
+    private static final int MATRIX_FLOATS = 16;
+    private static final int INPUT_FLOATS = 9;
+
+    private final Skeleton skeleton;
+    // Model bone per skeleton bone, null if the model has none
+    private final IBoneTarget[] targets;
+    private final boolean addBindRotation;
+    // 16 floats per bone, column-major
+    private final float[] world;
+    // Local inputs of the last update, to detect changes
+    private final float[] inputs;
+    private final boolean[] recomputed;
+    private boolean valid;
+
+    private final Matrix4f parentMatrix = new Matrix4f();
+    private final Matrix4f localMatrix = new Matrix4f();
+
+    public BoneHierarchy(final Skeleton skeleton, final IBoneModel model) {
+        this(skeleton, model, false);
+    }
+
+    /**
+     * @param addBindRotation add the geometry's bind rotation to the bone rotation, for {@link IBoneTarget}
+     *                        implementations whose rotation reads 0 at rest
+     */
+    public BoneHierarchy(final Skeleton skeleton, final IBoneModel model, final boolean addBindRotation) {
+        this.skeleton = skeleton;
+        this.addBindRotation = addBindRotation;
+        final int size = skeleton.size();
+        this.targets = new IBoneTarget[size];
+        for (int bone = 0; bone < size; bone++) {
+            this.targets[bone] = model.getBoneIndex().get(skeleton.boneName(bone));
+        }
+        this.world = new float[size * MATRIX_FLOATS];
+        this.inputs = new float[size * INPUT_FLOATS];
+        this.recomputed = new boolean[size];
+    }
+
+    public Skeleton getSkeleton() {
+        return this.skeleton;
+    }
+
+    /**
+     * Recomputes the matrices of changed bones and their descendants. Call after animating.
+     *
+     * @return number of bones recomputed
+     */
+    public int update() {
+        int count = 0;
+        for (int bone = 0; bone < this.targets.length; bone++) {
+            final int parent = this.skeleton.parent(bone);
+            final boolean dirty = this.readInputs(bone) | !this.valid || (parent >= 0 && this.recomputed[parent]);
+            this.recomputed[bone] = dirty;
+            if (dirty) {
+                this.compute(bone, parent);
+                count++;
+            }
+        }
+        this.valid = true;
+        return count;
+    }
+
+    /**
+     * Forces a full recompute on the next update.
+     */
+    public void invalidate() {
+        this.valid = false;
+    }
+
+    /**
+     * Copies the bone's current local transform into {@code inputs}.
+     *
+     * @return true if it differs from the previous update
+     */
+    private boolean readInputs(final int bone) {
+        final IBoneTarget target = this.targets[bone];
+        final int base = bone * INPUT_FLOATS;
+        boolean changed = false;
+        if (target == null) {
+            if (!this.valid) {
+                Arrays.fill(this.inputs, base, base + 6, 0);
+                Arrays.fill(this.inputs, base + 6, base + INPUT_FLOATS, 1);
+            }
+            return false;
+        }
+        final Vector3f rot = target.getRotation();
+        final Vector3f off = target.getOffset();
+        changed |= this.swap(base, rot.x);
+        changed |= this.swap(base + 1, rot.y);
+        changed |= this.swap(base + 2, rot.z);
+        changed |= this.swap(base + 3, off.x);
+        changed |= this.swap(base + 4, off.y);
+        changed |= this.swap(base + 5, off.z);
+        changed |= this.swap(base + 6, target.getScaleX());
+        changed |= this.swap(base + 7, target.getScaleY());
+        changed |= this.swap(base + 8, target.getScaleZ());
+        return changed;
+    }
+
+    private boolean swap(final int index, final float value) {
+        if (Float.floatToIntBits(this.inputs[index]) == Float.floatToIntBits(value)) {
+            return false;
+        }
+        this.inputs[index] = value;
+        return true;
+    }
+
+    private void compute(final int bone, final int parent) {
+        final int in = bone * INPUT_FLOATS;
+        float rx = this.inputs[in], ry = this.inputs[in + 1], rz = this.inputs[in + 2];
+        if (this.addBindRotation) {
+            rx += this.skeleton.rotation(bone, 0);
+            ry += this.skeleton.rotation(bone, 1);
+            rz += this.skeleton.rotation(bone, 2);
+        }
+        final float px = -this.skeleton.pivot(bone, 0), py = this.skeleton.pivot(bone, 1), pz = this.skeleton.pivot(bone, 2);
+
+        // T(pivot + offset) * Rz * Ry * Rx * S * T(-pivot), X mirrored
+        this.localMatrix.translation(px - this.inputs[in + 3], py + this.inputs[in + 4], pz + this.inputs[in + 5])
+                .rotateZYX(rz * MathUtil.DEGREES_TO_RADIANS, -ry * MathUtil.DEGREES_TO_RADIANS, -rx * MathUtil.DEGREES_TO_RADIANS)
+                .scale(this.inputs[in + 6], this.inputs[in + 7], this.inputs[in + 8])
+                .translate(-px, -py, -pz);
+        if (parent >= 0) {
+            this.parentMatrix.set(this.world, parent * MATRIX_FLOATS).mul(this.localMatrix, this.localMatrix);
+        }
+        this.localMatrix.get(this.world, bone * MATRIX_FLOATS);
+    }
+
+    /**
+     * Matrices of all bones in {@link Skeleton} order, 16 floats each, column-major. Live view, do not modify.
+     */
+    public float[] getWorldMatrices() {
+        return this.world;
+    }
+
+    public Matrix4f getWorldMatrix(final int bone, final Matrix4f dest) {
+        return dest.set(this.world, bone * MATRIX_FLOATS);
+    }
+
+    /**
+     * Position of a bone's pivot after animation.
+     *
+     * @param name lowercase bone name
+     * @return false if the skeleton has no such bone
+     */
+    public boolean getBonePosition(final String name, final Vector3f dest) {
+        final int bone = this.skeleton.indexOf(name);
+        if (bone < 0) {
+            return false;
+        }
+        this.transform(bone, -this.skeleton.pivot(bone, 0), this.skeleton.pivot(bone, 1), this.skeleton.pivot(bone, 2), dest);
+        return true;
+    }
+
+    /**
+     * Position of a locator after animation, e.g. for {@code AnimationEventListener.onParticleEvent}.
+     *
+     * @return false if the skeleton has no such locator
+     */
+    public boolean getLocatorPosition(final String locator, final Vector3f dest) {
+        final Skeleton.Locator definition = this.skeleton.getLocators().get(locator);
+        if (definition == null) {
+            return false;
+        }
+        this.transform(definition.bone(), -definition.x(), definition.y(), definition.z(), dest);
+        return true;
+    }
+
+    private void transform(final int bone, final float x, final float y, final float z, final Vector3f dest) {
+        this.parentMatrix.set(this.world, bone * MATRIX_FLOATS).transformPosition(x, y, z, dest);
+    }
+}
@@ -0,0 +1,231 @@
+package net.easecation.bedrockmotion.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Numbers the bones of one model ({@code getAllBones()} order) and records which slots the animation engine wrote,
+ * so a frame only resets the 3-10 bones an animation set touches instead of all of them.
+ * <pre>{@code
+ * BoneSlots slots = new BoneSlots(model);   // once per model, captures the bind pose
+ * controller.setBoneSlots(slots);
+ *
+ * // each frame, instead of model.resetAllBones()
+ * slots.resetWritten();
+ * controller.tick(frameScope);
+ * controller.animate(model);
+ * }</pre>
+ * <p>
+ * A needed-bones mask ({@link #setNeeded}) makes the samplers skip every track of the other bones, e.g. on a proxy
+ * that only needs the bones driving locators, hitboxes or riders. Timeline and particle events are not affected.
+ * <p>
+ * Only writes made by the samplers are recorded. Code that writes bones by other means (custom procedural
+ * animation, {@code InterpolatedPose}) must {@link #markWritten} them or keep using {@code resetAllBones()}.
+ */
+public class BoneSlots {
+    private static final int[] NO_SLOTS = new int[0];
+    // Far more maps than one model's animations; reaching it means maps are being replaced, e.g. by pack reloads
+    private static final int MAX_BINDINGS = 256;
+
+    private final IBoneModel model;
+    private final PoseSnapshot bindPose = new PoseSnapshot();
+    private final Map<String, Integer> slotsByName = new HashMap<>();
+    // Bone-name maps (e.g. VBUAnimation.boneAnimations()) resolved to slots, by map identity; bounded by MAX_BINDINGS
+    private final Map<Map<String, ?>, int[]> bindings = new IdentityHashMap<>();
+    private final BitSet written = new BitSet();
+    // Parent slot per slot, -1 for roots
+    private final int[] parents;
+    // null: every bone is needed
+    private BitSet needed;
+    private List<IBoneTarget> neededBones;
+
+    /**
+     * Resets the model and captures its bind pose.
+     */
+    public BoneSlots(final IBoneModel model) {
+        this.model = model;
+        model.resetAllBones();
+        this.bindPose.capture(model);
+
+        final Map<IBoneTarget, Integer> slotsByBone = new IdentityHashMap<>();
+        for (int slot = 0; slot < this.bindPose.size(); slot++) {
+            slotsByBone.put(this.bindPose.bone(slot), slot);
+        }
+        for (Map.Entry<String, IBoneTarget> entry : model.getBoneIndex().entrySet()) {
+            final Integer slot = slotsByBone.get(entry.getValue());
+            if (slot != null) {
+                this.slotsByName.put(entry.getKey(), slot);
+            }
+        }
+        this.parents = new int[this.size()];
+        Arrays.fill(this.parents, -1);
+        for (int slot = 0; slot < this.size(); slot++) {
+            final Map<String, IBoneTarget> children = this.bone(slot).getChildren();
+            if (children == null) {
+                continue;
+            }
+            for (IBoneTarget child : children.values()) {
+                final Integer childSlot = slotsByBone.get(child);
+                if (childSlot != null) {
+                    this.parents[childSlot] = slot;
+                }
+            }
+        }
+    }
+
+    public IBoneModel getModel() {
+        return this.model;
+    }
+
+    public int size() {
+        return this.bindPose.size();
+    }
+
+    public IBoneTarget bone(final int slot) {
+        return this.bindPose.bone(slot);
+    }
+
+    /**
+     * @param name lowercase bone name
+     * @return the slot, or -1 if the model has no such bone
+     */
+    public int slotOf(final String name) {
+        final Integer slot = this.slotsByName.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Resolves the keys of a bone-name map, in iteration order, to slots (-1 for bones the model does not have).
+     * The result is cached per map instance, so pass maps that live as long as the model, e.g. a compiled animation's.
+     * The cache is dropped once it holds {@value #MAX_BINDINGS} maps, so animations replaced by a pack reload do
+     * not stay reachable; call {@link #clearBindings()} to drop them right away.
+     */
+    public int[] bind(final Map<String, ?> bones) {
+        int[] slots = this.bindings.get(bones);
+        if (slots == null) {
+            if (this.bindings.size() >= MAX_BINDINGS) {
+                this.bindings.clear();
+            }
+            slots = bones.isEmpty() ? NO_SLOTS : new int[bones.size()];
+            int i = 0;
+            for (String name : bones.keySet()) {
+                slots[i++] = this.slotOf(name.toLowerCase(Locale.ROOT));
+            }
+            this.bindings.put(bones, slots);
+        }
+        return slots;
+    }
+
+    /**
+     * Drops the cached bindings, e.g. when {@code PackManager.getGeneration()} changed and the animations they were
+     * resolved for have been replaced. Bindings already handed out stay valid.
+     */
+    public void clearBindings() {
+        this.bindings.clear();
+    }
+
+    /**
+     * Restricts sampling to the slots set in {@code needed}; null samples every bone. The set is copied.
+     */
+    public void setNeeded(final BitSet needed) {
+        this.needed = needed != null ? (BitSet) needed.clone() : null;
+        this.neededBones = null;
+    }
+
+    /**
+     * Restricts sampling to the named bones and their ancestors, whose transforms move them.
+     *
+     * @param names lowercase bone names; unknown names are ignored
+     */
+    public void setNeededBones(final Collection<String> names) {
+        final BitSet needed = new BitSet(this.size());
+        for (String name : names) {
+            for (int slot = this.slotOf(name); slot >= 0 && !needed.get(slot); slot = this.parents[slot]) {
+                needed.set(slot);
+            }
+        }
+        this.needed = needed;
+        this.neededBones = null;
+    }
+
+    public boolean isNeeded(final int slot) {
+        return this.needed == null || this.needed.get(slot);
+    }
+
+    public boolean hasNeededMask() {
+        return this.needed != null;
+    }
+
+    /**
+     * The needed bones (every bone without a mask), in slot order.
+     */
+    public List<IBoneTarget> getNeededBones() {
+        if (this.neededBones == null) {
+            final List<IBoneTarget> bones = new ArrayList<>();
+            for (int slot = 0; slot < this.size(); slot++) {
+                if (this.isNeeded(slot)) {
+                    bones.add(this.bone(slot));
+                }
+            }
+            this.neededBones = Collections.unmodifiableList(bones);
+        }
+        return this.neededBones;
+    }
+
+    /**
+     * @return parent slot, or -1 for a root
+     */
+    public int parentOf(final int slot) {
+        return this.parents[slot];
+    }
+
+    public void markWritten(final int slot) {
+        this.written.set(slot);
+    }
+
+    /**
+     * Marks every slot of a binding from {@link #bind}, e.g. for a frame that holds a cached pose instead of sampling.
+     */
+    public void markWritten(final int[] binding) {
+        for (int slot : binding) {
+            if (slot >= 0) {
+                this.written.set(slot);
+            }
+        }
+    }
+
+    public boolean isWritten(final int slot) {
+        return this.written.get(slot);
+    }
+
+    /**
+     * Slots written since the last reset. Live view, do not modify.
+     */
+    public BitSet getWritten() {
+        return this.written;
+    }
+
+    /**
+     * Restores the bind pose of the bones written since the last reset and clears the record.
+     */
+    public void resetWritten() {
+        this.bindPose.restore(this.written);
+        this.written.clear();
+    }
+
+    /**
+     * Restores the bind pose of every bone, like {@code resetAllBones()} on a model whose bind pose is the snapshot.
+     */
+    public void resetAll() {
+        this.bindPose.restore();
+        this.written.clear();
+    }
+}
@@ -23,6 +23,9 @@ public interface IBoneModel {
     /**
      * Reset all bones to their default/bind pose.
      * Called before additive animation blending each frame.
+     * A {@link PoseSnapshot} captured after building the bones can restore them in bulk.
+     *
+     * @see BoneSlots#resetWritten()
      */
     void resetAllBones();
 }
@@ -0,0 +1,34 @@
+package net.easecation.bedrockmotion.model;
+
+import org.joml.Vector3f;
+
+/**
+ * 64-bit FNV-1a style hash over the values an animation pass writes to bones. Different hashes for two frames mean
+ * the pass wrote different values; equal hashes mean it wrote the same values to the same tracks with high
+ * probability only, as distinct writes can collide.
+ */
+public final class PoseHash {
+    /**
+     * Hash of a pass that wrote nothing.
+     */
+    public static final long SEED = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x100000001B3L;
+
+    private PoseHash() {
+    }
+
+    public static long mix(final long hash, final long value) {
+        return (hash ^ value) * PRIME;
+    }
+
+    public static long mix(final long hash, final float value) {
+        return mix(hash, Float.floatToIntBits(value));
+    }
+
+    /**
+     * Mixes one track write: its index and the written vector.
+     */
+    public static long mix(final long hash, final int track, final Vector3f value) {
+        return mix(mix(mix(mix(hash, track), value.x), value.y), value.z);
+    }
+}
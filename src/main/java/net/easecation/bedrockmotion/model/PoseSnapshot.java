@@ -0,0 +1,143 @@
+package net.easecation.bedrockmotion.model;
+
+import net.easecation.bedrockmotion.util.MathUtil;
+import org.joml.Vector3f;
+
+import java.util.BitSet;
+
+/**
+ * Reusable snapshot of every bone of a model: rotation, offset and scale in flat float storage.
+ * Unlike {@link BoneTransform} it allocates nothing once sized for a model.
+ * <p>
+ * Also serves as a bulk bind-pose reset for {@link IBoneModel} implementations: capture once right after building
+ * the bones, then {@link #restore()} in {@code resetAllBones()}.
+ */
+public final class PoseSnapshot {
+    private static final int FLOATS_PER_BONE = 9;
+    private static final IBoneTarget[] NO_BONES = new IBoneTarget[0];
+
+    // getAllBones() order
+    private IBoneTarget[] bones = NO_BONES;
+    private float[] values = new float[0];
+    private boolean captured;
+
+    public void capture(final IBoneModel model) {
+        int count = 0;
+        for (IBoneTarget ignored : model.getAllBones()) {
+            count++;
+        }
+        if (count != this.bones.length) {
+            this.bones = new IBoneTarget[count];
+            this.values = new float[count * FLOATS_PER_BONE];
+        }
+        int i = 0;
+        for (IBoneTarget bone : model.getAllBones()) {
+            final Vector3f rot = bone.getRotation();
+            final Vector3f off = bone.getOffset();
+            final int base = i * FLOATS_PER_BONE;
+            this.bones[i++] = bone;
+            this.values[base] = rot.x;
+            this.values[base + 1] = rot.y;
+            this.values[base + 2] = rot.z;
+            this.values[base + 3] = off.x;
+            this.values[base + 4] = off.y;
+            this.values[base + 5] = off.z;
+            this.values[base + 6] = bone.getScaleX();
+            this.values[base + 7] = bone.getScaleY();
+            this.values[base + 8] = bone.getScaleZ();
+        }
+        this.captured = true;
+    }
+
+    /**
+     * Writes the snapshot back to the bones it was captured from.
+     */
+    public void restore() {
+        for (int i = 0; i < this.bones.length; i++) {
+            this.restore(i);
+        }
+    }
+
+    /**
+     * Writes the snapshot back to one bone, by index in {@code getAllBones()} order at capture time.
+     */
+    public void restore(final int index) {
+        final int base = index * FLOATS_PER_BONE;
+        final IBoneTarget bone = this.bones[index];
+        bone.getRotation().set(this.values[base], this.values[base + 1], this.values[base + 2]);
+        bone.getOffset().set(this.values[base + 3], this.values[base + 4], this.values[base + 5]);
+        bone.setScale(this.values[base + 6], this.values[base + 7], this.values[base + 8]);
+    }
+
+    /**
+     * Writes the snapshot back to the bones whose index is set in {@code indices}.
+     */
+    public void restore(final BitSet indices) {
+        for (int i = indices.nextSetBit(0); i >= 0 && i < this.bones.length; i = indices.nextSetBit(i + 1)) {
+            this.restore(i);
+        }
+    }
+
+    /**
+     * Writes {@code from + (to - from) * t} to the bones of {@code to}, rotations along the shortest path.
+     * Falls back to restoring {@code to} when the snapshots were not taken from the same bones.
+     */
+    public static void interpolate(final PoseSnapshot from, final PoseSnapshot to, final float t) {
+        if (!from.captured || !from.sameBones(to)) {
+            to.restore();
+            return;
+        }
+        for (int i = 0; i < to.bones.length; i++) {
+            final int base = i * FLOATS_PER_BONE;
+            write(to.bones[i], from.values, base, to.values, base, t);
+        }
+    }
+
+    private static void write(final IBoneTarget bone, final float[] from, final int a, final float[] to, final int b, final float t) {
+        bone.getRotation().set(
+                from[a] + MathUtil.normalizeAngleDeg(to[b] - from[a]) * t,
+                from[a + 1] + MathUtil.normalizeAngleDeg(to[b + 1] - from[a + 1]) * t,
+                from[a + 2] + MathUtil.normalizeAngleDeg(to[b + 2] - from[a + 2]) * t);
+        bone.getOffset().set(
+                from[a + 3] + (to[b + 3] - from[a + 3]) * t,
+                from[a + 4] + (to[b + 4] - from[a + 4]) * t,
+                from[a + 5] + (to[b + 5] - from[a + 5]) * t);
+        bone.setScale(
+                from[a + 6] + (to[b + 6] - from[a + 6]) * t,
+                from[a + 7] + (to[b + 7] - from[a + 7]) * t,
+                from[a + 8] + (to[b + 8] - from[a + 8]) * t);
+    }
+
+    private boolean sameBones(final PoseSnapshot other) {
+        if (this.bones.length != other.bones.length) {
+            return false;
+        }
+        for (int i = 0; i < this.bones.length; i++) {
+            if (this.bones[i] != other.bones[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return this.bones.length;
+    }
+
+    public IBoneTarget bone(final int index) {
+        return this.bones[index];
+    }
+
+    public boolean isCaptured() {
+        return this.captured;
+    }
+
+    /**
+     * Forgets the snapshot and the bones it references.
+     */
+    public void clear() {
+        this.captured = false;
+        this.bones = NO_BONES;
+        this.values = new float[0];
+    }
+}
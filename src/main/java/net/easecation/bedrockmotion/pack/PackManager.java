@@ -1,17 +1,37 @@
 package net.easecation.bedrockmotion.pack;
 
 import lombok.Getter;
+import net.easecation.bedrockmotion.animation.vanilla.AnimateTransformation;
+import net.easecation.bedrockmotion.animation.vanilla.VBUKeyFrame;
+import net.easecation.bedrockmotion.controller.AnimationController;
+import net.easecation.bedrockmotion.mocha.MoLangEngine;
+import net.easecation.bedrockmotion.mocha.ParseCache;
 import net.easecation.bedrockmotion.pack.content.Content;
 import net.easecation.bedrockmotion.pack.definitions.*;
 import net.easecation.bedrockmotion.pack.definitions.controller.RenderControllerDefinitions;
+import org.cube.converter.data.bedrock.BedrockEntityData;
+import org.cube.converter.data.bedrock.controller.BedrockRenderController;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Parses a stack of resource packs (vanilla first, custom packs on top) into definitions.
+ * <p>
+ * Packs can be added, removed or replaced after construction. Only the changed pack is parsed;
+ * the merged definition maps are rebuilt in place from the cached per-pack layers, so references
+ * obtained from the getters stay valid. Running {@code Animator}s keep the {@code AnimationData}
+ * they were created with, and {@code AnimationControllerInstance}s keep their controller definition
+ * but resolve animations for newly entered states against the updated definitions. Callers that need
+ * a clean switch should compare {@link #getGeneration()} and rebuild their instances when it changes.
+ * <p>
+ * Not thread-safe: mutate the pack stack from the thread that drives the animations.
+ */
 @Getter
 public class PackManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(PackManager.class);
@@ -23,25 +43,49 @@ public class PackManager {
     private final MaterialDefinitions materialDefinitions;
     private final AnimationDefinitions animationDefinitions;
     private final AnimationControllerDefinitions animationControllerDefinitions;
+    private final LayerCache layerCache;
+
+    /**
+     * Incremented every time the pack stack changes.
+     */
+    private long generation;
+
+    /**
+     * Parse cache for the expressions owned by this manager's definitions, or null for the engine-wide one.
+     */
+    private ParseCache parseCache;
 
     public PackManager(final List<Content> customPacks) {
-        final List<Content> allPacks = new ArrayList<>();
+        this(loadVanillaPack(), customPacks, null);
+    }
 
-        // Load vanilla resource pack as base layer
-        try (InputStream is = PackManager.class.getResourceAsStream("/libs/vanilla_packs/vanilla.mcpack")) {
-            if (is != null) {
-                allPacks.add(new Content(is.readAllBytes()));
-                LOGGER.info("[PackManager] Loaded vanilla resource pack");
-            } else {
-                LOGGER.warn("[PackManager] Vanilla resource pack not found in library resources");
-            }
-        } catch (IOException e) {
-            LOGGER.warn("[PackManager] Failed to load vanilla resource pack", e);
+    /**
+     * @param vanillaPack base layer below the custom packs, or null to load none
+     * @param customPacks packs on top of vanilla, lowest priority first
+     * @param layerCache  shares parsed per-pack layers with other managers, or null to parse every pack
+     */
+    public PackManager(final Content vanillaPack, final List<Content> customPacks, final LayerCache layerCache) {
+        this(vanillaPack, customPacks, layerCache, null);
+    }
+
+    /**
+     * @param vanillaPack base layer below the custom packs, or null to load none
+     * @param customPacks packs on top of vanilla, lowest priority first
+     * @param layerCache  shares parsed per-pack layers with other managers, or null to parse every pack
+     * @param parseCache  cache the definitions compile their expressions through, or null for the engine-wide one
+     */
+    public PackManager(final Content vanillaPack, final List<Content> customPacks, final LayerCache layerCache,
+                       final ParseCache parseCache) {
+        final List<Content> allPacks = new ArrayList<>();
+        if (vanillaPack != null) {
+            allPacks.add(vanillaPack);
         }
 
         // Custom packs on top (can override vanilla definitions)
         allPacks.addAll(customPacks);
         this.packs = allPacks;
+        this.layerCache = layerCache;
+        this.parseCache = parseCache;
 
         this.renderControllerDefinitions = new RenderControllerDefinitions(this);
         this.entityDefinitions = new EntityDefinitions(this);
@@ -50,4 +94,163 @@ public class PackManager {
         this.animationDefinitions = new AnimationDefinitions(this);
         this.animationControllerDefinitions = new AnimationControllerDefinitions(this);
     }
+
+    /**
+     * Loads the vanilla resource pack bundled with the library.
+     *
+     * @return the vanilla pack, or null if it is missing or unreadable
+     */
+    public static Content loadVanillaPack() {
+        try (InputStream is = PackManager.class.getResourceAsStream("/libs/vanilla_packs/vanilla.mcpack")) {
+            if (is != null) {
+                final Content content = new Content(is.readAllBytes());
+                LOGGER.info("[PackManager] Loaded vanilla resource pack");
+                return content;
+            }
+            LOGGER.warn("[PackManager] Vanilla resource pack not found in library resources");
+        } catch (IOException e) {
+            LOGGER.warn("[PackManager] Failed to load vanilla resource pack", e);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the pack stack, lowest priority (vanilla) first.
+     */
+    public List<Content> getPacks() {
+        return Collections.unmodifiableList(this.packs);
+    }
+
+    /**
+     * Adds a pack on top of the stack, overriding definitions of all packs below it.
+     */
+    public void addPack(final Content content) {
+        this.packs.add(content);
+        this.onPackChanged(null, content);
+    }
+
+    /**
+     * Removes a pack from the stack. Definitions it overrode fall back to the packs below it.
+     *
+     * @return false if the pack was not part of the stack
+     */
+    public boolean removePack(final Content content) {
+        final int index = this.indexOf(content);
+        if (index < 0) {
+            return false;
+        }
+        this.packs.remove(index);
+        this.onPackChanged(content, null);
+        return true;
+    }
+
+    /**
+     * Replaces a pack in place, keeping its position (and therefore its override precedence) in the stack.
+     *
+     * @return false if {@code oldContent} was not part of the stack
+     */
+    public boolean replacePack(final Content oldContent, final Content newContent) {
+        final int index = this.indexOf(oldContent);
+        if (index < 0) {
+            return false;
+        }
+        this.packs.set(index, newContent);
+        this.onPackChanged(oldContent, newContent);
+        return true;
+    }
+
+    /**
+     * Returns the parse cache used for this manager's definitions: its own one if set, else the engine-wide cache.
+     */
+    public ParseCache getParseCache() {
+        return this.parseCache != null ? this.parseCache : MoLangEngine.getParseCache();
+    }
+
+    /**
+     * Gives this manager its own parse cache, e.g. sized for a large custom pack, or null to share the engine-wide one.
+     * Keyframes and delays are compiled when their pack is parsed, so only packs added afterwards use the new cache;
+     * pass the cache to the constructor to cover the initial packs.
+     */
+    public void setParseCache(final ParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    /**
+     * Parses every MoLang expression the loaded definitions can evaluate (keyframes, delays, controller transitions,
+     * blend weights and scripts, render controller expressions and conditions) so the first ticks do not pay for
+     * parsing. Everything goes to {@link #getParseCache()}, the cache keyframes and delays were compiled through
+     * when their pack was parsed.
+     *
+     * @return the number of expressions added to the cache
+     */
+    public int prewarmParseCache() {
+        final List<String> expressions = new ArrayList<>();
+        for (AnimationDefinitions.AnimationData data : this.animationDefinitions.getAnimations().values()) {
+            expressions.add(data.animation().getStartDelay());
+            expressions.add(data.animation().getLoopDelay());
+            for (List<AnimateTransformation> transformations : data.compiled().boneAnimations().values()) {
+                for (AnimateTransformation transformation : transformations) {
+                    for (VBUKeyFrame keyframe : transformation.keyframes()) {
+                        if (keyframe != null) {
+                            Collections.addAll(expressions, keyframe.preTarget());
+                            Collections.addAll(expressions, keyframe.postTarget());
+                        }
+                    }
+                }
+            }
+        }
+
+        for (AnimationController controller : this.animationControllerDefinitions.getControllers().values()) {
+            for (AnimationController.State state : controller.getStates().values()) {
+                for (AnimationController.Transition transition : state.getTransitions()) {
+                    expressions.add(transition.condition());
+                }
+                for (AnimationController.StateAnimation animation : state.getAnimations()) {
+                    expressions.add(animation.blendWeightExpression());
+                }
+                expressions.addAll(state.getOnEntry());
+                expressions.addAll(state.getOnExit());
+            }
+        }
+        for (BedrockRenderController controller : this.renderControllerDefinitions.getRenderControllers().values()) {
+            expressions.add(controller.geometryExpression());
+            expressions.addAll(controller.textureExpressions());
+            for (BedrockRenderController.Array array : controller.geometries()) {
+                expressions.addAll(array.values());
+            }
+            for (BedrockRenderController.Array array : controller.textures()) {
+                expressions.addAll(array.values());
+            }
+        }
+        for (EntityDefinitions.EntityDefinition entity : this.entityDefinitions.getEntities().values()) {
+            for (BedrockEntityData.RenderController controller : entity.entityData().getControllers()) {
+                expressions.add(controller.condition());
+            }
+        }
+
+        final int added = this.getParseCache().prewarm(expressions);
+        LOGGER.debug("[PackManager] Prewarmed parse cache with {} of {} expressions", added, expressions.size());
+        return added;
+    }
+
+    private void onPackChanged(final Content removed, final Content added) {
+        int rebuilt = 0;
+        for (LayeredDefinitions<?> definitions : List.of(this.renderControllerDefinitions, this.entityDefinitions,
+                this.modelDefinitions, this.materialDefinitions, this.animationDefinitions, this.animationControllerDefinitions)) {
+            if (definitions.updateLayers(removed, added, this.packs)) {
+                rebuilt++;
+            }
+        }
+        this.generation++;
+        LOGGER.debug("[PackManager] Pack stack changed (generation {}), rebuilt {} definition types", this.generation, rebuilt);
+    }
+
+    private int indexOf(final Content content) {
+        for (int i = 0; i < this.packs.size(); i++) {
+            if (this.packs.get(i) == content) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
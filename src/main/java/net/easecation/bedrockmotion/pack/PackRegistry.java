@@ -0,0 +1,367 @@
+package net.easecation.bedrockmotion.pack;
+
+import net.easecation.bedrockmotion.pack.content.Content;
+import net.easecation.bedrockmotion.pack.definitions.LayerCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Content-addressed pack store for processes that serve many tenants (e.g. proxies with many backends/players).
+ * <ul>
+ *     <li>Packs are keyed by the SHA-256 of their zip bytes; the same pack uploaded twice yields the same {@link Content}.</li>
+ *     <li>Identical entries inside different packs share a single {@code byte[]}.</li>
+ *     <li>Parsed definition layers are shared between all {@link PackManager}s built from the same packs,
+ *     and the bundled vanilla pack is loaded and parsed once per registry.</li>
+ *     <li>{@link PackManager}s for the same pack stack are shared; idle ones are kept for reuse and evicted
+ *     in LRU order once the retained entry bytes exceed the memory budget. Managers whose packs are all still
+ *     acquired elsewhere are kept, since evicting them would free no entry bytes.</li>
+ * </ul>
+ * Everything is reference counted: every {@code acquire*} must be paired with a {@code release*}.
+ * Zips, definition layers and managers are loaded outside the registry lock, so one tenant's cold load does not
+ * block other tenants; concurrent requests for the same layer or manager wait for the single load in progress.
+ * Shared managers must not be mutated with {@link PackManager#addPack} and friends.
+ */
+public class PackRegistry implements LayerCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackRegistry.class);
+    private static final Object NO_LAYER = new Object();
+
+    private final long memoryBudgetBytes;
+    private final Content vanillaPack;
+
+    private final Map<String, ContentRecord> contentsByHash = new HashMap<>();
+    private final Map<Content, ContentRecord> contents = new IdentityHashMap<>();
+    private final Map<String, SharedEntry> entries = new HashMap<>();
+    // Completed with the layer (or NO_LAYER) once parsed
+    private final Map<Content, Map<Class<?>, CompletableFuture<Object>>> layers = new IdentityHashMap<>();
+    // Access-ordered: iteration starts at the least recently acquired manager
+    private final LinkedHashMap<List<String>, ManagerRecord> managers = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<PackManager, ManagerRecord> managersByInstance = new IdentityHashMap<>();
+
+    private long retainedBytes;
+    private long contentHits, contentMisses, managerHits, managerMisses, evictions;
+
+    /**
+     * @param memoryBudgetBytes upper bound for retained pack entry bytes before idle managers are evicted
+     */
+    public PackRegistry(final long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.vanillaPack = PackManager.loadVanillaPack();
+        if (this.vanillaPack != null) {
+            this.layers.put(this.vanillaPack, new HashMap<>());
+        }
+    }
+
+    /**
+     * Returns the shared {@link Content} for the given zip, parsing it only if no identical pack is registered.
+     */
+    public Content acquireContent(final byte[] zipData) throws IOException {
+        final String hash = sha256(zipData);
+        synchronized (this) {
+            final ContentRecord record = this.contentsByHash.get(hash);
+            if (record != null) {
+                this.contentHits++;
+                record.refs++;
+                return record.content;
+            }
+        }
+
+        // Unzipped and hashed outside the lock; if the same pack is registered meanwhile, that one wins
+        final Content content = new Content(zipData);
+        final List<String> paths = content.getFilesDeep("", "");
+        final List<String> entryHashes = new ArrayList<>(paths.size());
+        for (final String path : paths) {
+            entryHashes.add(sha256(content.get(path)));
+        }
+
+        synchronized (this) {
+            ContentRecord record = this.contentsByHash.get(hash);
+            if (record != null) {
+                this.contentHits++;
+                record.refs++;
+                return record.content;
+            }
+
+            this.contentMisses++;
+            for (int i = 0; i < paths.size(); i++) {
+                final String entryHash = entryHashes.get(i);
+                SharedEntry entry = this.entries.get(entryHash);
+                if (entry == null) {
+                    final byte[] data = content.get(paths.get(i));
+                    entry = new SharedEntry(data);
+                    this.entries.put(entryHash, entry);
+                    this.retainedBytes += data.length;
+                } else {
+                    content.put(paths.get(i), entry.data);
+                }
+                entry.refs++;
+            }
+
+            record = new ContentRecord(hash, content, entryHashes);
+            record.refs++;
+            this.contentsByHash.put(hash, record);
+            this.contents.put(content, record);
+            this.layers.put(content, new HashMap<>());
+            this.evictIdleManagers();
+            return content;
+        }
+    }
+
+    public synchronized void releaseContent(final Content content) {
+        final ContentRecord record = this.contents.get(content);
+        if (record == null) {
+            throw new IllegalArgumentException("Content is not managed by this registry");
+        }
+        if (record.refs <= 0) {
+            throw new IllegalStateException("Content released more often than acquired");
+        }
+        if (--record.refs > 0) {
+            return;
+        }
+
+        this.contentsByHash.remove(record.hash);
+        this.contents.remove(content);
+        this.layers.remove(content);
+        for (final String entryHash : record.entryHashes) {
+            final SharedEntry entry = this.entries.get(entryHash);
+            if (entry != null && --entry.refs <= 0) {
+                this.entries.remove(entryHash);
+                this.retainedBytes -= entry.data.length;
+            }
+        }
+    }
+
+    /**
+     * Returns a shared {@link PackManager} for vanilla plus the given packs (lowest priority first).
+     * All packs must have been acquired from this registry.
+     */
+    public PackManager acquirePackManager(final List<Content> customPacks) {
+        final ManagerRecord record;
+        final boolean load;
+        synchronized (this) {
+            final List<String> key = new ArrayList<>(customPacks.size());
+            for (final Content content : customPacks) {
+                final ContentRecord contentRecord = this.contents.get(content);
+                if (contentRecord == null) {
+                    throw new IllegalArgumentException("Content is not managed by this registry");
+                }
+                key.add(contentRecord.hash);
+            }
+
+            final ManagerRecord existing = this.managers.get(key);
+            load = existing == null;
+            if (!load) {
+                this.managerHits++;
+                existing.refs++;
+                record = existing;
+            } else {
+                this.managerMisses++;
+                // The manager holds its own reference to every pack it was built from
+                for (final Content content : customPacks) {
+                    this.contents.get(content).refs++;
+                }
+                final ManagerRecord created = new ManagerRecord(key, List.copyOf(customPacks));
+                created.refs++;
+                this.managers.put(key, created);
+                record = created;
+            }
+        }
+        if (!load) {
+            // Possibly still loading on another thread; waits outside the monitor so that thread can finish
+            return record.future.join();
+        }
+
+        // Parsed outside the lock; the record is referenced, so it cannot be evicted meanwhile
+        try {
+            final PackManager manager = new PackManager(this.vanillaPack, customPacks, this);
+            synchronized (this) {
+                record.manager = manager;
+                this.managersByInstance.put(manager, record);
+            }
+            record.future.complete(manager);
+            return manager;
+        } catch (Throwable e) {
+            synchronized (this) {
+                this.managers.remove(record.key, record);
+                for (final Content content : record.packs) {
+                    this.releaseContent(content);
+                }
+            }
+            record.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases a manager. It stays cached while idle until the memory budget forces it out.
+     */
+    public synchronized void releasePackManager(final PackManager packManager) {
+        final ManagerRecord record = this.managersByInstance.get(packManager);
+        if (record == null) {
+            throw new IllegalArgumentException("PackManager is not managed by this registry");
+        }
+        if (record.refs <= 0) {
+            // Tolerating this would let another tenant's manager be evicted under its feet
+            throw new IllegalStateException("PackManager released more often than acquired");
+        }
+        record.refs--;
+        this.evictIdleManagers();
+    }
+
+    private void evictIdleManagers() {
+        final Iterator<ManagerRecord> it = this.managers.values().iterator();
+        while (this.retainedBytes > this.memoryBudgetBytes && it.hasNext()) {
+            final ManagerRecord record = it.next();
+            // Packs still acquired by other tenants stay in memory: evicting would only throw the parsed layers away
+            if (record.refs > 0 || this.bytesFreedByEvicting(record) == 0) {
+                continue;
+            }
+            it.remove();
+            this.managersByInstance.remove(record.manager);
+            this.evictions++;
+            for (final Content content : record.packs) {
+                this.releaseContent(content);
+            }
+            LOGGER.debug("[PackRegistry] Evicted idle pack manager ({} packs), retained {} bytes",
+                    record.packs.size(), this.retainedBytes);
+        }
+    }
+
+    /**
+     * Entry bytes that releasing the manager's references to its packs would free.
+     */
+    private long bytesFreedByEvicting(final ManagerRecord record) {
+        final Map<Content, Integer> contentReleases = new IdentityHashMap<>();
+        for (final Content content : record.packs) {
+            contentReleases.merge(content, 1, Integer::sum);
+        }
+        final Map<String, Integer> entryReleases = new HashMap<>();
+        for (final Map.Entry<Content, Integer> released : contentReleases.entrySet()) {
+            final ContentRecord content = this.contents.get(released.getKey());
+            if (content.refs <= released.getValue()) {
+                for (final String entryHash : content.entryHashes) {
+                    entryReleases.merge(entryHash, 1, Integer::sum);
+                }
+            }
+        }
+        long freed = 0;
+        for (final Map.Entry<String, Integer> released : entryReleases.entrySet()) {
+            final SharedEntry entry = this.entries.get(released.getKey());
+            if (entry != null && entry.refs <= released.getValue()) {
+                freed += entry.data.length;
+            }
+        }
+        return freed;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <L> L getLayer(final Content content, final Class<?> definitionType, final Function<Content, L> parser) {
+        final CompletableFuture<Object> layer;
+        final boolean parse;
+        synchronized (this) {
+            final Map<Class<?>, CompletableFuture<Object>> byType = this.layers.get(content);
+            if (byType == null) {
+                layer = null;
+                parse = false;
+            } else {
+                final CompletableFuture<Object> existing = byType.get(definitionType);
+                parse = existing == null;
+                layer = parse ? new CompletableFuture<>() : existing;
+                if (parse) {
+                    byType.put(definitionType, layer);
+                }
+            }
+        }
+        if (layer == null) {
+            // Not owned by this registry (e.g. added to a manager afterwards): may be mutable, never share it
+            return parser.apply(content);
+        }
+
+        if (parse) {
+            try {
+                final L parsed = parser.apply(content);
+                layer.complete(parsed != null ? parsed : NO_LAYER);
+            } catch (Throwable e) {
+                // Let the next request retry instead of caching the failure
+                synchronized (this) {
+                    final Map<Class<?>, CompletableFuture<Object>> byType = this.layers.get(content);
+                    if (byType != null) {
+                        byType.remove(definitionType, layer);
+                    }
+                }
+                layer.completeExceptionally(e);
+                throw e;
+            }
+        }
+        final Object value = layer.join();
+        return value == NO_LAYER ? null : (L) value;
+    }
+
+    public synchronized Stats getStats() {
+        int idle = 0;
+        for (final ManagerRecord record : this.managers.values()) {
+            if (record.refs <= 0) {
+                idle++;
+            }
+        }
+        return new Stats(this.contents.size(), this.entries.size(), this.retainedBytes, this.memoryBudgetBytes,
+                this.managers.size(), idle, this.contentHits, this.contentMisses,
+                this.managerHits, this.managerMisses, this.evictions);
+    }
+
+    private static String sha256(final byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Stats(int contents, int uniqueEntries, long retainedBytes, long memoryBudgetBytes,
+                        int managers, int idleManagers, long contentHits, long contentMisses,
+                        long managerHits, long managerMisses, long evictions) {
+    }
+
+    private static final class ContentRecord {
+        final String hash;
+        final Content content;
+        final List<String> entryHashes;
+        int refs;
+
+        ContentRecord(String hash, Content content, List<String> entryHashes) {
+            this.hash = hash;
+            this.content = content;
+            this.entryHashes = entryHashes;
+        }
+    }
+
+    private static final class SharedEntry {
+        final byte[] data;
+        int refs;
+
+        SharedEntry(byte[] data) {
+            this.data = data;
+        }
+    }
+
+    private static final class ManagerRecord {
+        final List<String> key;
+        final List<Content> packs;
+        final CompletableFuture<PackManager> future = new CompletableFuture<>();
+        // Set once loaded
+        PackManager manager;
+        int refs;
+
+        ManagerRecord(List<String> key, List<Content> packs) {
+            this.key = key;
+            this.packs = packs;
+        }
+    }
+}
@@ -1,31 +1,53 @@
 package net.easecation.bedrockmotion.pack.content;
 
 import com.google.gson.JsonObject;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
 import org.cube.converter.util.GsonUtil;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
 // Taken from ViaBedrock!
 public class Content {
     private final Map<String, byte[]> content;
     private final Map<String, Map<String, String>> langCache;
 
+    // Compressed storage: entries are kept encoded by EntryCodec, hot entries are cached inflated (null = plain storage)
+    private final InflatedCache inflatedCache;
+
     public Content() {
         this(false);
     }
 
     public Content(final boolean concurrent) {
+        this(concurrent, -1);
+    }
+
+    /**
+     * @param inflatedCacheBytes if >= 0, entries are stored compressed and inflated on access, keeping up to
+     *                           this many bytes of recently used entries inflated; if negative, entries are stored as-is
+     */
+    public Content(final boolean concurrent, final long inflatedCacheBytes) {
         if (concurrent) {
             this.content = new ConcurrentHashMap<>();
             this.langCache = new ConcurrentHashMap<>();
@@ -33,10 +55,18 @@ public class Content {
             this.content = new HashMap<>();
             this.langCache = new HashMap<>();
         }
+        this.inflatedCache = inflatedCacheBytes >= 0 ? new InflatedCache(inflatedCacheBytes) : null;
     }
 
     public Content(final byte[] zipData) throws IOException {
-        this(false);
+        this(zipData, -1);
+    }
+
+    /**
+     * @see #Content(boolean, long)
+     */
+    public Content(final byte[] zipData, final long inflatedCacheBytes) throws IOException {
+        this(false, inflatedCacheBytes);
 
         final ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zipData));
         ZipEntry zipEntry;
@@ -48,7 +78,7 @@ public class Content {
             while ((len = zipInputStream.read(buf)) > 0) {
                 baos.write(buf, 0, len);
             }
-            this.content.put(zipEntry.getName(), baos.toByteArray());
+            this.put(zipEntry.getName(), baos.toByteArray());
             baos.reset();
         }
     }
@@ -79,11 +109,44 @@ public class Content {
     }
 
     public byte[] get(final String path) {
-        return this.content.get(path);
+        final byte[] stored = this.content.get(path);
+        if (stored == null || this.inflatedCache == null) {
+            return stored;
+        }
+        return this.inflatedCache.get(path, stored, this.content);
     }
 
+    /**
+     * @throws NullPointerException if {@code data} is null, in plain and compressed storage alike
+     */
     public boolean put(final String path, final byte[] data) {
-        return this.content.put(path, data) != null;
+        Objects.requireNonNull(data, () -> "Entry data must not be null: " + path);
+        if (this.inflatedCache == null) {
+            return this.content.put(path, data) != null;
+        }
+        final boolean replaced = this.content.put(path, EntryCodec.encode(data)) != null;
+        if (replaced) {
+            this.inflatedCache.invalidate(path);
+        }
+        return replaced;
+    }
+
+    public boolean isCompressed() {
+        return this.inflatedCache != null;
+    }
+
+    /**
+     * Returns the inflated-entry cache statistics, or null if this content is not stored compressed.
+     */
+    public CacheStats getCacheStats() {
+        if (this.inflatedCache == null) {
+            return null;
+        }
+        long storedBytes = 0;
+        for (final byte[] stored : this.content.values()) {
+            storedBytes += stored.length;
+        }
+        return this.inflatedCache.stats(storedBytes);
     }
 
     public String getString(final String path) {
@@ -134,6 +197,23 @@ public class Content {
         return GsonUtil.getGson().fromJson(string.trim(), JsonObject.class);
     }
 
+    /**
+     * Opens a streaming reader over the entry bytes without building a String or a JsonElement tree.
+     * Lenient like {@link #getJson(String)}, so comments and other common pack quirks are accepted.
+     */
+    public JsonReader getJsonReader(final String path) {
+        final byte[] bytes = this.get(path);
+        if (bytes == null) {
+            return null;
+        }
+
+        // Skip a UTF-8 byte order mark, which some pack editors write
+        final int offset = bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF ? 3 : 0;
+        final JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(bytes, offset, bytes.length - offset), StandardCharsets.UTF_8));
+        reader.setStrictness(Strictness.LENIENT);
+        return reader;
+    }
+
     public boolean putJson(final String path, final JsonObject json) {
         return this.putString(path, GsonUtil.getGson().toJson(json));
     }
@@ -177,20 +257,164 @@ public class Content {
 
     public byte[] toZip() throws IOException {
         final ByteArrayOutputStream baos = new ByteArrayOutputStream(1024 * 1024 * 4);
-        final ZipOutputStream zipOutputStream = new ZipOutputStream(baos);
-        for (final Map.Entry<String, byte[]> entry : this.content.entrySet()) {
-            zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
-            zipOutputStream.write(entry.getValue());
-            zipOutputStream.closeEntry();
-        }
-        zipOutputStream.close();
+        this.toZip(baos);
         return baos.toByteArray();
     }
 
+    public void toZip(final WritableByteChannel channel) throws IOException {
+        this.toZip(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Streams this pack as a zip, compressing on a daemon pool (one thread per core) shared by every call and
+     * created on first use, so deflating a large pack never occupies the common pool. Callers zipping many packs
+     * concurrently, or needing to bound or shut down the threads, should pass their own executor to
+     * {@link #toZip(OutputStream, Executor, int)}.
+     */
+    public void toZip(final OutputStream out) throws IOException {
+        this.toZip(out, ZipExecutor.EXECUTOR, ZipExecutor.PARALLELISM);
+    }
+
+    /**
+     * Streams this pack as a zip. Entries are compressed in parallel on {@code executor} while earlier entries
+     * are written, keeping at most {@code 2 * parallelism} compressed entries in flight. Entries are written in
+     * path order with a fixed timestamp, so the same content always produces the same bytes. Already compressed
+     * formats (PNG, JPEG, Ogg) are stored as-is, and entries of compressed storage are copied without re-deflating.
+     * The stream is not closed.
+     */
+    public void toZip(final OutputStream out, final Executor executor, final int parallelism) throws IOException {
+        final List<String> paths = new ArrayList<>(this.content.keySet());
+        Collections.sort(paths);
+
+        final ZipWriter writer = new ZipWriter(out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out, 64 * 1024));
+        final int window = Math.max(1, parallelism * 2);
+        final ArrayDeque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>(window);
+        int next = 0;
+        boolean completed = false;
+        try {
+            for (int written = 0; written < paths.size(); written++) {
+                while (next < paths.size() && inFlight.size() < window) {
+                    final String path = paths.get(next++);
+                    inFlight.add(CompletableFuture.supplyAsync(() -> this.getZipEncoded(path), executor));
+                }
+                final byte[] encoded = inFlight.poll().join();
+                if (encoded != null) {
+                    writer.writeEntry(paths.get(written), encoded);
+                }
+            }
+            completed = true;
+        } catch (CompletionException e) {
+            throw new IOException("Failed to compress pack entry", e.getCause());
+        } finally {
+            if (!completed) {
+                // Compression or the output failed: drop the entries not started yet
+                inFlight.forEach(future -> future.cancel(false));
+            }
+        }
+        writer.finish();
+    }
+
+    private byte[] getZipEncoded(final String path) {
+        final byte[] stored = this.content.get(path);
+        if (stored == null) {
+            // Removed concurrently, skip it
+            return null;
+        }
+        return this.inflatedCache != null ? stored : EntryCodec.encode(stored);
+    }
+
     public int size() {
         return this.content.size();
     }
 
+    /**
+     * @param hits          reads served from the inflated cache
+     * @param misses        reads that had to inflate the entry
+     * @param cachedEntries entries currently held inflated
+     * @param cachedBytes   bytes currently held inflated
+     * @param storedBytes   bytes of all entries in their compressed form
+     */
+    public record CacheStats(long hits, long misses, int cachedEntries, long cachedBytes, long storedBytes) {
+        public double hitRatio() {
+            final long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Byte-bounded LRU of inflated entries.
+     */
+    private static final class InflatedCache {
+        private final long maxBytes;
+        private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+        private long hits, misses;
+
+        InflatedCache(final long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @param content the owner's storage, to check that {@code stored} was not replaced while inflating
+         */
+        byte[] get(final String path, final byte[] stored, final Map<String, byte[]> content) {
+            synchronized (this) {
+                final byte[] cached = this.entries.get(path);
+                if (cached != null) {
+                    this.hits++;
+                    return cached;
+                }
+                this.misses++;
+            }
+
+            final byte[] raw = EntryCodec.decode(stored);
+            if (raw.length > this.maxBytes) {
+                return raw;
+            }
+            synchronized (this) {
+                // A concurrent put() replaced the entry (and invalidated it) while we inflated the old bytes
+                if (content.get(path) != stored) {
+                    return raw;
+                }
+                final byte[] previous = this.entries.put(path, raw);
+                if (previous != null) {
+                    this.bytes -= previous.length;
+                }
+                this.bytes += raw.length;
+                final Iterator<byte[]> it = this.entries.values().iterator();
+                while (this.bytes > this.maxBytes && it.hasNext()) {
+                    this.bytes -= it.next().length;
+                    it.remove();
+                }
+            }
+            return raw;
+        }
+
+        synchronized void invalidate(final String path) {
+            final byte[] previous = this.entries.remove(path);
+            if (previous != null) {
+                this.bytes -= previous.length;
+            }
+        }
+
+        synchronized CacheStats stats(final long storedBytes) {
+            return new CacheStats(this.hits, this.misses, this.entries.size(), this.bytes, storedBytes);
+        }
+    }
+
+    /**
+     * Holder of the pool behind {@link #toZip(OutputStream)}, so it is only created once a pack is zipped.
+     * Its threads start on demand and, being daemons, never keep the JVM alive.
+     */
+    private static final class ZipExecutor {
+        static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors());
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(PARALLELISM, task -> {
+            final Thread thread = new Thread(task, "BedrockMotion-ZipWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public static class LazyImage {
         private final byte[] bytes;
         private final String format;
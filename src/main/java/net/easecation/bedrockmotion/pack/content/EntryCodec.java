@@ -0,0 +1,136 @@
+package net.easecation.bedrockmotion.pack.content;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes pack entries for compressed {@link Content} storage.
+ * <p>
+ * Layout: {@code [method:1][rawLength:4][crc32:4][data]}, where method is {@link #STORED} or {@link #DEFLATED}
+ * (the zip method ids) and data is raw deflate without zlib wrapper, so encoded entries can be copied
+ * into a zip file as-is. Entries that do not shrink (e.g. PNGs) are kept stored.
+ */
+final class EntryCodec {
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+    static final int HEADER_SIZE = 9;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private EntryCodec() {
+    }
+
+    static byte[] encode(final byte[] raw) {
+        if (isAlreadyCompressed(raw)) {
+            return store(raw);
+        }
+
+        final CRC32 crc = new CRC32();
+        crc.update(raw);
+
+        final Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        // Only worth keeping if it saves something; give up once the output reaches the raw size
+        final byte[] buffer = new byte[HEADER_SIZE + raw.length];
+        int length = HEADER_SIZE;
+        while (!deflater.finished() && length < buffer.length) {
+            length += deflater.deflate(buffer, length, buffer.length - length);
+        }
+
+        final byte[] encoded;
+        if (deflater.finished() && length < buffer.length) {
+            encoded = Arrays.copyOf(buffer, length);
+            encoded[0] = DEFLATED;
+        } else {
+            encoded = buffer;
+            System.arraycopy(raw, 0, encoded, HEADER_SIZE, raw.length);
+            encoded[0] = STORED;
+        }
+        writeInt(encoded, 1, raw.length);
+        writeInt(encoded, 5, (int) crc.getValue());
+        return encoded;
+    }
+
+    static byte[] store(final byte[] raw) {
+        final CRC32 crc = new CRC32();
+        crc.update(raw);
+
+        final byte[] encoded = new byte[HEADER_SIZE + raw.length];
+        System.arraycopy(raw, 0, encoded, HEADER_SIZE, raw.length);
+        encoded[0] = STORED;
+        writeInt(encoded, 1, raw.length);
+        writeInt(encoded, 5, (int) crc.getValue());
+        return encoded;
+    }
+
+    /**
+     * Formats that are compressed already (PNG, JPEG, Ogg, zip) gain nothing from another deflate pass.
+     */
+    static boolean isAlreadyCompressed(final byte[] raw) {
+        if (raw.length < 4) {
+            return false;
+        }
+        return (raw[0] == (byte) 0x89 && raw[1] == 'P' && raw[2] == 'N' && raw[3] == 'G')
+                || (raw[0] == (byte) 0xFF && raw[1] == (byte) 0xD8 && raw[2] == (byte) 0xFF)
+                || (raw[0] == 'O' && raw[1] == 'g' && raw[2] == 'g' && raw[3] == 'S')
+                || (raw[0] == 'P' && raw[1] == 'K' && raw[2] == 3 && raw[3] == 4);
+    }
+
+    static byte[] decode(final byte[] encoded) {
+        final int rawLength = rawLength(encoded);
+        final byte[] raw = new byte[rawLength];
+        if (method(encoded) == STORED) {
+            System.arraycopy(encoded, HEADER_SIZE, raw, 0, rawLength);
+            return raw;
+        }
+
+        final Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(encoded, HEADER_SIZE, encoded.length - HEADER_SIZE);
+        try {
+            int offset = 0;
+            while (offset < rawLength && !inflater.finished()) {
+                final int n = inflater.inflate(raw, offset, rawLength - offset);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != rawLength) {
+                throw new IllegalStateException("Corrupt compressed entry: expected " + rawLength + " bytes, got " + offset);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed entry", e);
+        }
+        return raw;
+    }
+
+    static int method(final byte[] encoded) {
+        return encoded[0];
+    }
+
+    static int rawLength(final byte[] encoded) {
+        return readInt(encoded, 1);
+    }
+
+    static int crc32(final byte[] encoded) {
+        return readInt(encoded, 5);
+    }
+
+    private static void writeInt(final byte[] buffer, final int offset, final int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(final byte[] buffer, final int offset) {
+        return (buffer[offset] & 0xFF) << 24 | (buffer[offset + 1] & 0xFF) << 16 | (buffer[offset + 2] & 0xFF) << 8 | buffer[offset + 3] & 0xFF;
+    }
+}
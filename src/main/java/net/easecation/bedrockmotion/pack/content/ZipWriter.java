@@ -0,0 +1,122 @@
+package net.easecation.bedrockmotion.pack.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal zip writer for entries that are already encoded by {@link EntryCodec}.
+ * Unlike {@link java.util.zip.ZipOutputStream} it accepts pre-compressed data, so entries can be
+ * deflated in parallel (or copied from compressed storage) and only the framing is written here.
+ * All entries get a fixed timestamp so identical content always produces identical bytes.
+ */
+final class ZipWriter {
+    // 1980-01-01 00:00:00 in MS-DOS format, the earliest representable date
+    private static final int DOS_TIME = 0;
+    private static final int DOS_DATE = (1 << 5) | 1;
+    private static final int FLAG_UTF8 = 1 << 11;
+
+    private final OutputStream out;
+    private final byte[] header = new byte[46];
+    private final List<CentralEntry> centralEntries = new ArrayList<>();
+    private long offset;
+
+    ZipWriter(final OutputStream out) {
+        this.out = out;
+    }
+
+    void writeEntry(final String path, final byte[] encoded) throws IOException {
+        final byte[] name = path.getBytes(StandardCharsets.UTF_8);
+        final int method = EntryCodec.method(encoded);
+        final int compressedSize = encoded.length - EntryCodec.HEADER_SIZE;
+        final CentralEntry entry = new CentralEntry(name, method, EntryCodec.crc32(encoded),
+                compressedSize, EntryCodec.rawLength(encoded), this.offset);
+        if (this.offset > 0xFFFFFFFFL || this.centralEntries.size() >= 0xFFFF) {
+            throw new IOException("Pack too large for a non-Zip64 archive");
+        }
+
+        writeInt(0, 0x04034b50);
+        writeShort(4, versionNeeded(method));
+        writeShort(6, FLAG_UTF8);
+        writeShort(8, method);
+        writeShort(10, DOS_TIME);
+        writeShort(12, DOS_DATE);
+        writeInt(14, entry.crc);
+        writeInt(18, entry.compressedSize);
+        writeInt(22, entry.size);
+        writeShort(26, name.length);
+        writeShort(28, 0);
+        this.write(this.header, 30);
+        this.write(name, name.length);
+        this.out.write(encoded, EntryCodec.HEADER_SIZE, compressedSize);
+        this.offset += compressedSize;
+
+        this.centralEntries.add(entry);
+    }
+
+    void finish() throws IOException {
+        final long centralOffset = this.offset;
+        for (final CentralEntry entry : this.centralEntries) {
+            writeInt(0, 0x02014b50);
+            writeShort(4, versionNeeded(entry.method));
+            writeShort(6, versionNeeded(entry.method));
+            writeShort(8, FLAG_UTF8);
+            writeShort(10, entry.method);
+            writeShort(12, DOS_TIME);
+            writeShort(14, DOS_DATE);
+            writeInt(16, entry.crc);
+            writeInt(20, entry.compressedSize);
+            writeInt(24, entry.size);
+            writeShort(28, entry.name.length);
+            writeShort(30, 0);
+            writeShort(32, 0);
+            writeShort(34, 0);
+            writeShort(36, 0);
+            writeInt(38, 0);
+            writeInt(42, (int) entry.localHeaderOffset);
+            this.write(this.header, 46);
+            this.write(entry.name, entry.name.length);
+        }
+        final long centralSize = this.offset - centralOffset;
+        if (this.offset > 0xFFFFFFFFL) {
+            throw new IOException("Pack too large for a non-Zip64 archive");
+        }
+
+        writeInt(0, 0x06054b50);
+        writeShort(4, 0);
+        writeShort(6, 0);
+        writeShort(8, this.centralEntries.size());
+        writeShort(10, this.centralEntries.size());
+        writeInt(12, (int) centralSize);
+        writeInt(16, (int) centralOffset);
+        writeShort(20, 0);
+        this.write(this.header, 22);
+        this.out.flush();
+    }
+
+    private static int versionNeeded(final int method) {
+        return method == EntryCodec.DEFLATED ? 20 : 10;
+    }
+
+    private void write(final byte[] bytes, final int length) throws IOException {
+        this.out.write(bytes, 0, length);
+        this.offset += length;
+    }
+
+    private void writeShort(final int index, final int value) {
+        this.header[index] = (byte) value;
+        this.header[index + 1] = (byte) (value >>> 8);
+    }
+
+    private void writeInt(final int index, final int value) {
+        this.header[index] = (byte) value;
+        this.header[index + 1] = (byte) (value >>> 8);
+        this.header[index + 2] = (byte) (value >>> 16);
+        this.header[index + 3] = (byte) (value >>> 24);
+    }
+
+    private record CentralEntry(byte[] name, int method, int crc, int compressedSize, int size, long localHeaderOffset) {
+    }
+}
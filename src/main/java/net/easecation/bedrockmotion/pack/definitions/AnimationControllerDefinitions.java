@@ -1,5 +1,6 @@
 package net.easecation.bedrockmotion.pack.definitions;
 
+import com.google.gson.stream.JsonReader;
 import lombok.Getter;
 import net.easecation.bedrockmotion.controller.AnimationController;
 import net.easecation.bedrockmotion.pack.PackManager;
@@ -8,29 +9,53 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Getter
-public class AnimationControllerDefinitions {
+public class AnimationControllerDefinitions extends LayeredDefinitions<Map<String, AnimationController>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnimationControllerDefinitions.class);
 
     private final Map<String, AnimationController> controllers = new HashMap<>();
 
     public AnimationControllerDefinitions(final PackManager packManager) {
-        for (final Content content : packManager.getPacks()) {
-            for (final String path : content.getFilesDeep("animation_controllers/", ".json")) {
-                try {
-                    for (final AnimationController controller : AnimationController.parse(content.getJson(path))) {
-                        this.controllers.put(controller.getIdentifier(), controller);
+        this.load(packManager);
+
+        if (!this.controllers.isEmpty()) {
+            LOGGER.debug("[PackManager] Loaded {} animation controllers", this.controllers.size());
+        }
+    }
+
+    @Override
+    protected Map<String, AnimationController> parseLayer(final Content content) {
+        final List<String> paths = content.getFilesDeep("animation_controllers/", ".json");
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, AnimationController> layer = new HashMap<>();
+        for (final String path : paths) {
+            try {
+                try (JsonReader reader = content.getJsonReader(path)) {
+                    for (final AnimationController controller : AnimationController.parse(reader)) {
+                        layer.put(controller.getIdentifier(), controller);
                     }
-                } catch (Throwable e) {
-                    LOGGER.warn("Failed to parse animation controller definition {}", path, e);
                 }
+            } catch (Throwable e) {
+                LOGGER.warn("Failed to parse animation controller definition {}", path, e);
+                this.reportParseFailure(path, e);
             }
         }
+        return layer;
+    }
 
-        if (!this.controllers.isEmpty()) {
-            LOGGER.debug("[PackManager] Loaded {} animation controllers", this.controllers.size());
-        }
+    @Override
+    protected void clear() {
+        this.controllers.clear();
+    }
+
+    @Override
+    protected void merge(final Map<String, AnimationController> layer) {
+        this.controllers.putAll(layer);
     }
 }
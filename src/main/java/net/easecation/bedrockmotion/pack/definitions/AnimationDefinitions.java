@@ -1,36 +1,125 @@
 package net.easecation.bedrockmotion.pack.definitions;
 
+import com.google.gson.stream.JsonReader;
 import lombok.Getter;
 import net.easecation.bedrockmotion.animation.Animation;
 import net.easecation.bedrockmotion.animation.vanilla.AnimateBuilder;
+import net.easecation.bedrockmotion.animation.vanilla.BakedAnimation;
 import net.easecation.bedrockmotion.animation.vanilla.VBUAnimation;
+import net.easecation.bedrockmotion.mocha.CompiledExpression;
+import net.easecation.bedrockmotion.mocha.MoLangEngine;
+import net.easecation.bedrockmotion.mocha.ParseCache;
 import net.easecation.bedrockmotion.pack.PackManager;
 import net.easecation.bedrockmotion.pack.content.Content;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Getter
-public class AnimationDefinitions {
+public class AnimationDefinitions extends LayeredDefinitions<Map<String, AnimationDefinitions.AnimationData>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnimationDefinitions.class);
 
     private final Map<String, AnimationData> animations = new HashMap<>();
+    // Null: animations are not baked
+    private BakedAnimation.Settings bakeSettings;
 
     public AnimationDefinitions(final PackManager packManager) {
-        for (final Content content : packManager.getPacks()) {
-            for (final String modelPath : content.getFilesDeep("animations/", ".json")) {
-                try {
-                    for (final Animation animation : Animation.parse(content.getJson(modelPath))) {
-                        this.animations.put(animation.getIdentifier(), new AnimationData(animation, AnimateBuilder.build(animation)));
+        this.load(packManager);
+    }
+
+    @Override
+    protected Map<String, AnimationData> parseLayer(final Content content) {
+        final List<String> paths = content.getFilesDeep("animations/", ".json");
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, AnimationData> layer = new HashMap<>();
+        for (final String modelPath : paths) {
+            try {
+                try (JsonReader reader = content.getJsonReader(modelPath)) {
+                    for (final Animation animation : Animation.parse(reader)) {
+                        layer.put(animation.getIdentifier(), new AnimationData(animation,
+                                AnimateBuilder.build(animation, this.getParseCache()), this.getParseCache()));
                     }
-                } catch (Throwable e) {
-                    LOGGER.warn("Failed to parse animation definition {}", modelPath, e);
                 }
+            } catch (Throwable e) {
+                LOGGER.warn("Failed to parse animation definition {}", modelPath, e);
+                this.reportParseFailure(modelPath, e);
             }
         }
+        return layer;
+    }
+
+    @Override
+    protected void clear() {
+        this.animations.clear();
+    }
+
+    @Override
+    protected void merge(final Map<String, AnimationData> layer) {
+        if (this.bakeSettings == null) {
+            this.animations.putAll(layer);
+            return;
+        }
+        // Layers are shared through the layer cache, so baked data only lives in the merged view
+        for (final Map.Entry<String, AnimationData> entry : layer.entrySet()) {
+            this.animations.put(entry.getKey(), entry.getValue().withBaked(BakedAnimation.bake(entry.getValue().compiled(), this.bakeSettings)));
+        }
     }
 
-    public record AnimationData(Animation animation, VBUAnimation compiled) {}
+    /**
+     * Bakes every animation with only constant keyframes into pose tables ({@link BakedAnimation}), now and whenever
+     * the pack stack changes; {@code null} switches baking off. Animators pick this up when they are created.
+     */
+    public void setBakeSettings(final BakedAnimation.Settings settings) {
+        this.bakeSettings = settings;
+        int baked = 0;
+        for (final Map.Entry<String, AnimationData> entry : this.animations.entrySet()) {
+            final AnimationData data = entry.getValue();
+            final AnimationData updated = data.withBaked(settings != null ? BakedAnimation.bake(data.compiled(), settings) : null);
+            entry.setValue(updated);
+            if (updated.baked() != null) {
+                baked++;
+            }
+        }
+        LOGGER.debug("[PackManager] Baked {} of {} animations", baked, this.animations.size());
+    }
+
+    /**
+     * @param startDelay compiled {@code start_delay}, or null if it does not parse (played without delay)
+     * @param loopDelay  compiled {@code loop_delay}, or null if it does not parse (played without delay)
+     * @param baked      pose tables sampled from {@code compiled}, or null if not baked
+     */
+    public record AnimationData(Animation animation, VBUAnimation compiled,
+                                CompiledExpression startDelay, CompiledExpression loopDelay, BakedAnimation baked) {
+        public AnimationData(Animation animation, VBUAnimation compiled) {
+            this(animation, compiled, MoLangEngine.getParseCache());
+        }
+
+        /**
+         * Compiles the delays through {@code cache}, e.g. the parse cache of the owning pack manager.
+         */
+        public AnimationData(Animation animation, VBUAnimation compiled, ParseCache cache) {
+            this(animation, compiled, compileDelay(animation, animation.getStartDelay(), cache),
+                    compileDelay(animation, animation.getLoopDelay(), cache), null);
+        }
+
+        public AnimationData withBaked(BakedAnimation baked) {
+            return baked == this.baked ? this : new AnimationData(this.animation, this.compiled, this.startDelay, this.loopDelay, baked);
+        }
+
+        private static CompiledExpression compileDelay(Animation animation, String expression, ParseCache cache) {
+            try {
+                return CompiledExpression.compile(expression, cache);
+            } catch (IOException e) {
+                LOGGER.warn("[PackManager] Failed to parse delay '{}' of animation {}, playing it without delay", expression, animation.getIdentifier());
+                return null;
+            }
+        }
+    }
 }
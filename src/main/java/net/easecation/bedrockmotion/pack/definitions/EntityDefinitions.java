@@ -1,6 +1,9 @@
 package net.easecation.bedrockmotion.pack.definitions;
 
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.Getter;
+import net.easecation.bedrockmotion.util.JsonUtil;
 import org.cube.converter.data.bedrock.BedrockEntityData;
 import org.cube.converter.parser.bedrock.data.impl.BedrockEntityParser;
 import net.easecation.bedrockmotion.pack.PackManager;
@@ -8,30 +11,158 @@ import net.easecation.bedrockmotion.pack.content.Content;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 // https://wiki.bedrock.dev/entities/entity-intro-rp.html
 @Getter
-public class EntityDefinitions {
+public class EntityDefinitions extends LayeredDefinitions<Map<String, EntityDefinitions.EntityDefinition>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(EntityDefinitions.class);
 
     private final Map<String, EntityDefinition> entities = new HashMap<>();
 
     public EntityDefinitions(final PackManager packManager) {
-        for (final Content content : packManager.getPacks()) {
-            for (final String entityPath : content.getFilesDeep("entity/", ".json")) {
-                try {
-                    final BedrockEntityData entityData = BedrockEntityParser.parse(content.getString(entityPath));
-                    final String identifier = entityData.getIdentifier();
-                    this.entities.put(identifier, new EntityDefinition(identifier, entityData));
-                } catch (Throwable e) {
-                    LOGGER.warn("Failed to parse entity definition {}", entityPath);
+        this.load(packManager);
+    }
+
+    @Override
+    protected Map<String, EntityDefinition> parseLayer(final Content content) {
+        final List<String> paths = content.getFilesDeep("entity/", ".json");
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, EntityDefinition> layer = new HashMap<>();
+        for (final String entityPath : paths) {
+            try {
+                final BedrockEntityData entityData = BedrockEntityParser.parse(content.getString(entityPath));
+                final String identifier = entityData.getIdentifier();
+                // Extract the animation setup from raw JSON (CubeConverter doesn't parse it)
+                final Map<String, String> animations = new LinkedHashMap<>();
+                final List<AnimateEntry> animate = new ArrayList<>();
+                try (JsonReader reader = content.getJsonReader(entityPath)) {
+                    parseAnimationSetup(reader, animations, animate);
+                } catch (Throwable ignored) {
+                }
+                layer.put(identifier, new EntityDefinition(identifier, entityData, animations, animate));
+            } catch (Throwable e) {
+                LOGGER.warn("Failed to parse entity definition {}", entityPath);
+                this.reportParseFailure(entityPath, e);
+            }
+        }
+        return layer;
+    }
+
+    @Override
+    protected void clear() {
+        this.entities.clear();
+    }
+
+    @Override
+    protected void merge(final Map<String, EntityDefinition> layer) {
+        this.entities.putAll(layer);
+    }
+
+    private static void parseAnimationSetup(JsonReader reader, Map<String, String> animations,
+                                            List<AnimateEntry> animate) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("minecraft:client_entity") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!reader.nextName().equals("description") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    if (name.equals("animations") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        animations.clear();
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            final String shortName = reader.nextName();
+                            if (reader.peek() == JsonToken.STRING) {
+                                animations.put(shortName, reader.nextString());
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    } else if (name.equals("scripts") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        parseScripts(reader, animate);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Reads {@code scripts.animate}: {@code ["short_name", {"short_name": "condition"}]}.
+     */
+    private static void parseScripts(JsonReader reader, List<AnimateEntry> animate) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("animate") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            animate.clear();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                final JsonToken token = reader.peek();
+                if (token == JsonToken.STRING) {
+                    animate.add(new AnimateEntry(reader.nextString(), ""));
+                } else if (token == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String shortName = reader.nextName();
+                        final JsonToken value = reader.peek();
+                        if (value == JsonToken.STRING || value == JsonToken.NUMBER || value == JsonToken.BOOLEAN) {
+                            animate.add(new AnimateEntry(shortName, JsonUtil.readString(reader)));
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
                 }
             }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * @param animations short name -> animation or animation controller identifier, from {@code description.animations}
+     * @param animate    the {@code scripts.animate} entries, in order
+     */
+    public record EntityDefinition(String identifier, BedrockEntityData entityData,
+                                   Map<String, String> animations, List<AnimateEntry> animate) {
+        public EntityDefinition(String identifier, BedrockEntityData entityData) {
+            this(identifier, entityData, Map.of(), List.of());
         }
     }
 
-    public record EntityDefinition(String identifier, BedrockEntityData entityData) {
+    /**
+     * One {@code scripts.animate} entry.
+     *
+     * @param shortName key into {@link EntityDefinition#animations()}
+     * @param condition MoLang blend weight the entry plays with, or empty when it always plays at full weight
+     */
+    public record AnimateEntry(String shortName, String condition) {
     }
 }
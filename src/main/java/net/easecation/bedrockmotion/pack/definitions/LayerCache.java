@@ -0,0 +1,19 @@
+package net.easecation.bedrockmotion.pack.definitions;
+
+import net.easecation.bedrockmotion.pack.content.Content;
+
+import java.util.function.Function;
+
+/**
+ * Shares parsed per-pack layers between {@link net.easecation.bedrockmotion.pack.PackManager}s
+ * that contain the same {@link Content} instance, so a pack used by many stacks is only parsed once.
+ * Cached layers are read-only; they are merged into each manager's own definition maps.
+ */
+public interface LayerCache {
+    /**
+     * Returns the cached layer of {@code content} for the given definition type,
+     * parsing it with {@code parser} on first use. May return null if the pack
+     * contributes nothing to that definition type.
+     */
+    <L> L getLayer(Content content, Class<?> definitionType, Function<Content, L> parser);
+}
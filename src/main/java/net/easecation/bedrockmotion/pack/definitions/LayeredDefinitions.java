@@ -0,0 +1,141 @@
+package net.easecation.bedrockmotion.pack.definitions;
+
+import net.easecation.bedrockmotion.jfr.PackLoadEvent;
+import net.easecation.bedrockmotion.jfr.PackParseFailureEvent;
+import net.easecation.bedrockmotion.mocha.ParseCache;
+import net.easecation.bedrockmotion.pack.PackManager;
+import net.easecation.bedrockmotion.pack.content.Content;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base for definitions merged from the pack stack.
+ * Each {@link Content} is parsed once into its own layer; the merged view is rebuilt
+ * from the cached layers in pack order (later packs override earlier ones), so adding,
+ * removing or replacing one pack only re-parses that pack.
+ *
+ * @param <L> the parsed contribution of a single pack
+ */
+public abstract class LayeredDefinitions<L> {
+    private final Map<Content, L> layers = new IdentityHashMap<>();
+    private LayerCache layerCache;
+    private PackManager packManager;
+
+    /**
+     * Parses every pack and builds the merged view. Subclasses call this at the end of
+     * their constructor, once their own fields are initialized.
+     */
+    protected final void load(final PackManager packManager) {
+        final PackLoadEvent event = new PackLoadEvent();
+        event.begin();
+        this.layerCache = packManager.getLayerCache();
+        this.packManager = packManager;
+        final List<Content> packs = packManager.getPacks();
+        for (final Content content : packs) {
+            final L layer = this.layerOf(content);
+            if (layer != null) {
+                this.layers.put(content, layer);
+            }
+        }
+        this.rebuild(packs);
+        this.commit(event, packs.size(), packs.size());
+    }
+
+    /**
+     * Drops the layer of {@code removed} (if any), parses {@code added} (if any) and
+     * rebuilds the merged view when either of them contributed to this definition type.
+     *
+     * @param packs the pack stack after the change, lowest priority first
+     * @return true if the merged view was rebuilt
+     */
+    public final boolean updateLayers(final Content removed, final Content added, final List<Content> packs) {
+        final PackLoadEvent event = new PackLoadEvent();
+        event.begin();
+        boolean changed = false;
+        if (removed != null && !containsIdentity(packs, removed)) {
+            changed = this.layers.remove(removed) != null;
+        }
+        if (added != null && !this.layers.containsKey(added)) {
+            final L layer = this.layerOf(added);
+            if (layer != null) {
+                this.layers.put(added, layer);
+                changed = true;
+            }
+        }
+        if (changed) {
+            this.rebuild(packs);
+        }
+        this.commit(event, packs.size(), added != null ? 1 : 0);
+        return changed;
+    }
+
+    private L layerOf(final Content content) {
+        if (this.layerCache == null) {
+            return this.parseLayer(content);
+        }
+        return this.layerCache.getLayer(content, this.getClass(), this::parseLayer);
+    }
+
+    private void rebuild(final List<Content> packs) {
+        this.clear();
+        for (final Content content : packs) {
+            final L layer = this.layers.get(content);
+            if (layer != null) {
+                this.merge(layer);
+            }
+        }
+    }
+
+    /**
+     * The parse cache of the owning {@link PackManager}, for runtime code evaluating these definitions.
+     */
+    public final ParseCache getParseCache() {
+        return this.packManager.getParseCache();
+    }
+
+    private void commit(final PackLoadEvent event, final int packs, final int parsedPacks) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.definitionType = this.getClass().getSimpleName();
+            event.packs = packs;
+            event.parsedPacks = parsedPacks;
+            event.commit();
+        }
+    }
+
+    /**
+     * Reports a pack file that failed to parse to JFR. Subclasses call this next to their log warning.
+     */
+    protected final void reportParseFailure(final String path, final Throwable error) {
+        PackParseFailureEvent.emit(this.getClass(), path, error);
+    }
+
+    private static boolean containsIdentity(final List<Content> packs, final Content content) {
+        for (final Content pack : packs) {
+            if (pack == content) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses the contribution of a single pack. The result may be shared through a
+     * {@link LayerCache}, so it must not be modified after it is returned.
+     *
+     * @return the layer, or null if the pack contains nothing for this definition type
+     */
+    protected abstract L parseLayer(Content content);
+
+    /**
+     * Clears the merged view before it is rebuilt.
+     */
+    protected abstract void clear();
+
+    /**
+     * Merges a layer on top of the current merged view.
+     */
+    protected abstract void merge(L layer);
+}
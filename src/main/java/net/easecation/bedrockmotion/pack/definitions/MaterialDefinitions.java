@@ -9,40 +9,60 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Simplified material definitions for BedrockMotion.
  * Stores material name -> material identifier mappings.
  * Full material rendering properties are resolved by the consumer (VBU/ViaBedrock).
  */
-public class MaterialDefinitions {
+public class MaterialDefinitions extends LayeredDefinitions<Set<String>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(MaterialDefinitions.class);
 
     private final Map<String, String> materialNames = new HashMap<>();
 
     public MaterialDefinitions(final PackManager packManager) {
-        for (final Content content : packManager.getPacks()) {
-            if (!content.contains("materials/entity.material")) {
-                continue;
-            }
+        this.load(packManager);
+    }
 
-            try {
-                final JsonObject root = JsonParser.parseString(content.getString("materials/entity.material")).getAsJsonObject();
-                if (root.has("materials")) {
-                    final JsonObject materials = root.getAsJsonObject("materials");
-                    for (Map.Entry<String, JsonElement> entry : materials.entrySet()) {
-                        String name = entry.getKey();
-                        // Strip parent reference (e.g., "entity_emissive_alpha:entity" -> "entity_emissive_alpha")
-                        if (name.contains(":")) {
-                            name = name.substring(0, name.indexOf(':'));
-                        }
-                        materialNames.put(name, name);
+    @Override
+    protected Set<String> parseLayer(final Content content) {
+        if (!content.contains("materials/entity.material")) {
+            return null;
+        }
+
+        final Set<String> layer = new HashSet<>();
+        try {
+            final JsonObject root = JsonParser.parseString(content.getString("materials/entity.material")).getAsJsonObject();
+            if (root.has("materials")) {
+                final JsonObject materials = root.getAsJsonObject("materials");
+                for (Map.Entry<String, JsonElement> entry : materials.entrySet()) {
+                    String name = entry.getKey();
+                    // Strip parent reference (e.g., "entity_emissive_alpha:entity" -> "entity_emissive_alpha")
+                    if (name.contains(":")) {
+                        name = name.substring(0, name.indexOf(':'));
                     }
+                    layer.add(name);
                 }
-            } catch (Throwable e) {
-                LOGGER.warn("Failed to parse entity material!");
             }
+        } catch (Throwable e) {
+            LOGGER.warn("Failed to parse entity material!");
+            this.reportParseFailure("materials/entity.material", e);
+        }
+        return layer;
+    }
+
+    @Override
+    protected void clear() {
+        this.materialNames.clear();
+    }
+
+    @Override
+    protected void merge(final Set<String> layer) {
+        for (final String name : layer) {
+            this.materialNames.put(name, name);
         }
     }
 
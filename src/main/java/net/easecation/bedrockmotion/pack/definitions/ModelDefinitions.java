@@ -1,10 +1,9 @@
 package net.easecation.bedrockmotion.pack.definitions;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.Getter;
+import net.easecation.bedrockmotion.util.JsonUtil;
 import org.cube.converter.model.impl.bedrock.BedrockGeometryModel;
 import org.cube.converter.parser.bedrock.geometry.BedrockGeometryParser;
 import net.easecation.bedrockmotion.pack.PackManager;
@@ -12,62 +11,226 @@ import net.easecation.bedrockmotion.pack.content.Content;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Getter
-public class ModelDefinitions {
+public class ModelDefinitions extends LayeredDefinitions<ModelDefinitions.ModelLayer> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ModelDefinitions.class);
 
     private final Map<String, BedrockGeometryModel> entityModels = new HashMap<>();
     private final Map<String, VisibleBounds> visibleBoundsMap = new HashMap<>();
+    private final Map<String, Skeleton> skeletons = new HashMap<>();
 
     public ModelDefinitions(final PackManager packManager) {
-        for (final Content content : packManager.getPacks()) {
-            for (final String modelPath : content.getFilesDeep("models/", ".json")) {
-                try {
-                    final String jsonStr = content.getString(modelPath);
-                    for (final BedrockGeometryModel bedrockGeometry : BedrockGeometryParser.parse(jsonStr)) {
-                        if (modelPath.startsWith("models/entity/")) {
-                            this.entityModels.put(bedrockGeometry.getIdentifier(), bedrockGeometry);
-                        }
-                    }
-                    // Extract visible_bounds from raw JSON (CubeConverter doesn't parse these)
+        this.load(packManager);
+    }
+
+    @Override
+    protected ModelLayer parseLayer(final Content content) {
+        final List<String> paths = content.getFilesDeep("models/", ".json");
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        final ModelLayer layer = new ModelLayer(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        for (final String modelPath : paths) {
+            try {
+                final String jsonStr = content.getString(modelPath);
+                for (final BedrockGeometryModel bedrockGeometry : BedrockGeometryParser.parse(jsonStr)) {
                     if (modelPath.startsWith("models/entity/")) {
-                        parseVisibleBounds(jsonStr);
+                        layer.entityModels().put(bedrockGeometry.getIdentifier(), bedrockGeometry);
                     }
-                } catch (Throwable e) {
-                    LOGGER.warn("Failed to parse model definition {}", modelPath);
                 }
+                // Extract visible_bounds and the bone hierarchy from raw JSON (CubeConverter doesn't parse these).
+                // Streamed from the entry bytes: descriptions and bone headers are read, cubes are skipped without building a tree.
+                if (modelPath.startsWith("models/entity/")) {
+                    try (JsonReader reader = content.getJsonReader(modelPath)) {
+                        parseGeometryExtras(reader, layer.visibleBounds(), layer.skeletons());
+                    } catch (Throwable ignored) {
+                    }
+                }
+            } catch (Throwable e) {
+                LOGGER.warn("Failed to parse model definition {}", modelPath);
+                this.reportParseFailure(modelPath, e);
             }
         }
+        return layer;
     }
 
-    private void parseVisibleBounds(String jsonStr) {
-        try {
-            JsonObject root = JsonParser.parseString(jsonStr).getAsJsonObject();
-            JsonArray geometries = root.getAsJsonArray("minecraft:geometry");
-            if (geometries == null) return;
-            for (JsonElement geomElem : geometries) {
-                JsonObject geom = geomElem.getAsJsonObject();
-                JsonObject desc = geom.getAsJsonObject("description");
-                if (desc == null || !desc.has("identifier")) continue;
-                String identifier = desc.get("identifier").getAsString();
+    @Override
+    protected void clear() {
+        this.entityModels.clear();
+        this.visibleBoundsMap.clear();
+        this.skeletons.clear();
+    }
 
-                float width = desc.has("visible_bounds_width") ? desc.get("visible_bounds_width").getAsFloat() : 1.0f;
-                float height = desc.has("visible_bounds_height") ? desc.get("visible_bounds_height").getAsFloat() : 2.0f;
-                float ox = 0, oy = 1, oz = 0;
-                if (desc.has("visible_bounds_offset")) {
-                    JsonArray offset = desc.getAsJsonArray("visible_bounds_offset");
-                    if (offset != null && offset.size() >= 3) {
-                        ox = offset.get(0).getAsFloat();
-                        oy = offset.get(1).getAsFloat();
-                        oz = offset.get(2).getAsFloat();
+    @Override
+    protected void merge(final ModelLayer layer) {
+        this.entityModels.putAll(layer.entityModels());
+        this.visibleBoundsMap.putAll(layer.visibleBounds());
+        this.skeletons.putAll(layer.skeletons());
+    }
+
+    private static void parseGeometryExtras(JsonReader reader, Map<String, VisibleBounds> visibleBounds,
+                                            Map<String, Skeleton> skeletons) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("minecraft:geometry") || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                String identifier = null;
+                List<Skeleton.Bone> bones = null;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    if (name.equals("description") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        identifier = parseDescription(reader, visibleBounds);
+                    } else if (name.equals("bones") && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                        bones = parseBones(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (identifier != null && bones != null) {
+                    skeletons.put(identifier, new Skeleton(bones));
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+
+    /**
+     * @return the geometry identifier, or null
+     */
+    private static String parseDescription(JsonReader reader, Map<String, VisibleBounds> out) throws IOException {
+        String identifier = null;
+        float width = 1.0f, height = 2.0f;
+        float ox = 0, oy = 1, oz = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "identifier" -> identifier = JsonUtil.readString(reader);
+                case "visible_bounds_width" -> width = JsonUtil.readFloat(reader);
+                case "visible_bounds_height" -> height = JsonUtil.readFloat(reader);
+                case "visible_bounds_offset" -> {
+                    final float[] offset = readVec3(reader);
+                    if (offset != null) {
+                        ox = offset[0];
+                        oy = offset[1];
+                        oz = offset[2];
                     }
                 }
-                this.visibleBoundsMap.put(identifier, new VisibleBounds(width, height, ox, oy, oz));
+                default -> reader.skipValue();
             }
-        } catch (Throwable ignored) {
         }
+        reader.endObject();
+        if (identifier != null) {
+            out.put(identifier, new VisibleBounds(width, height, ox, oy, oz));
+        }
+        return identifier;
     }
+
+    private static List<Skeleton.Bone> parseBones(JsonReader reader) throws IOException {
+        final List<Skeleton.Bone> bones = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String name = null, parent = null;
+            float[] pivot = null, rotation = null;
+            final Map<String, float[]> locators = new HashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> name = JsonUtil.readString(reader);
+                    case "parent" -> parent = JsonUtil.readString(reader);
+                    case "pivot" -> pivot = readVec3(reader);
+                    case "rotation" -> rotation = readVec3(reader);
+                    case "locators" -> parseLocators(reader, locators);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (name != null) {
+                bones.add(new Skeleton.Bone(name, parent, pivot != null ? pivot : new float[3],
+                        rotation != null ? rotation : new float[3], locators));
+            }
+        }
+        reader.endArray();
+        return bones;
+    }
+
+    /**
+     * Locators are either {@code "name": [x, y, z]} or {@code "name": {"offset": [x, y, z], ...}}.
+     */
+    private static void parseLocators(JsonReader reader, Map<String, float[]> out) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            float[] offset = null;
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                offset = readVec3(reader);
+            } else if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("offset")) {
+                        offset = readVec3(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+            if (offset != null) {
+                out.put(name, offset);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * @return the first 3 numbers of an array, or null if the value is not an array of at least 3
+     */
+    private static float[] readVec3(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return null;
+        }
+        final float[] vec = new float[3];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (count < 3) {
+                vec[count++] = JsonUtil.readFloat(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return count == 3 ? vec : null;
+    }
+
+    record ModelLayer(Map<String, BedrockGeometryModel> entityModels, Map<String, VisibleBounds> visibleBounds,
+                      Map<String, Skeleton> skeletons) {}
 }
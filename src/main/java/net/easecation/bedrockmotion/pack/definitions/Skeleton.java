@@ -0,0 +1,130 @@
+package net.easecation.bedrockmotion.pack.definitions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bone hierarchy of a geometry: parents, pivots, bind rotations and locators, read from the geometry JSON
+ * (CubeConverter does not keep them). Bones are ordered so that every parent comes before its children.
+ * Coordinates are model pixels as written in the file.
+ */
+public final class Skeleton {
+    private final String[] boneNames;
+    private final int[] parents;
+    // 3 floats per bone
+    private final float[] pivots;
+    private final float[] rotations;
+    private final Map<String, Integer> indices;
+    private final Map<String, Locator> locators;
+
+    /**
+     * @param bones bones in any order; names and parents are matched case-insensitively, unknown parents make roots
+     */
+    public Skeleton(final List<Bone> bones) {
+        final Map<String, Bone> byName = new HashMap<>();
+        for (Bone bone : bones) {
+            byName.putIfAbsent(bone.name().toLowerCase(Locale.ROOT), bone);
+        }
+
+        // Parents first; cycles are broken by treating the bone that closes them as a root
+        final List<String> order = new ArrayList<>(byName.size());
+        final Map<String, Integer> indices = new HashMap<>();
+        for (String name : byName.keySet()) {
+            this.visit(name, byName, order, indices, new ArrayList<>());
+        }
+
+        final int count = order.size();
+        this.boneNames = order.toArray(new String[0]);
+        this.parents = new int[count];
+        this.pivots = new float[count * 3];
+        this.rotations = new float[count * 3];
+        final Map<String, Locator> locators = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            final Bone bone = byName.get(this.boneNames[i]);
+            final Integer parent = bone.parent() != null ? indices.get(bone.parent().toLowerCase(Locale.ROOT)) : null;
+            this.parents[i] = parent != null && parent < i ? parent : -1;
+            System.arraycopy(bone.pivot(), 0, this.pivots, i * 3, 3);
+            System.arraycopy(bone.rotation(), 0, this.rotations, i * 3, 3);
+            for (Map.Entry<String, float[]> locator : bone.locators().entrySet()) {
+                final float[] offset = locator.getValue();
+                locators.put(locator.getKey(), new Locator(i, offset[0], offset[1], offset[2]));
+            }
+        }
+        this.indices = indices;
+        this.locators = Collections.unmodifiableMap(locators);
+    }
+
+    private void visit(final String name, final Map<String, Bone> byName, final List<String> order,
+                       final Map<String, Integer> indices, final List<String> path) {
+        if (indices.containsKey(name) || path.contains(name)) {
+            return;
+        }
+        path.add(name);
+        final String parent = byName.get(name).parent();
+        if (parent != null && byName.containsKey(parent.toLowerCase(Locale.ROOT))) {
+            this.visit(parent.toLowerCase(Locale.ROOT), byName, order, indices, path);
+        }
+        indices.put(name, order.size());
+        order.add(name);
+    }
+
+    public int size() {
+        return this.boneNames.length;
+    }
+
+    /**
+     * @return lowercase name of a bone
+     */
+    public String boneName(final int bone) {
+        return this.boneNames[bone];
+    }
+
+    /**
+     * @return index of the parent bone, always lower than {@code bone}, or -1 for a root
+     */
+    public int parent(final int bone) {
+        return this.parents[bone];
+    }
+
+    /**
+     * @param name lowercase bone name
+     * @return the index, or -1
+     */
+    public int indexOf(final String name) {
+        final Integer index = this.indices.get(name);
+        return index != null ? index : -1;
+    }
+
+    public float pivot(final int bone, final int axis) {
+        return this.pivots[bone * 3 + axis];
+    }
+
+    public float rotation(final int bone, final int axis) {
+        return this.rotations[bone * 3 + axis];
+    }
+
+    public Map<String, Locator> getLocators() {
+        return this.locators;
+    }
+
+    /**
+     * One bone as written in the geometry JSON.
+     *
+     * @param parent   parent bone name, or null
+     * @param pivot    3 floats
+     * @param rotation bind rotation in degrees, 3 floats
+     * @param locators locator name to offset (3 floats, model pixels)
+     */
+    public record Bone(String name, String parent, float[] pivot, float[] rotation, Map<String, float[]> locators) {
+    }
+
+    /**
+     * @param bone index of the bone the locator is attached to
+     */
+    public record Locator(int bone, float x, float y, float z) {
+    }
+}
@@ -1,6 +1,7 @@
 package net.easecation.bedrockmotion.pack.definitions.controller;
 
 import lombok.Getter;
+import net.easecation.bedrockmotion.pack.definitions.LayeredDefinitions;
 import org.cube.converter.data.bedrock.controller.BedrockRenderController;
 import org.cube.converter.parser.bedrock.controller.BedrockControllerParser;
 import net.easecation.bedrockmotion.pack.PackManager;
@@ -9,26 +10,48 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 // https://wiki.bedrock.dev/entities/render-controllers
 @Getter
-public class RenderControllerDefinitions {
+public class RenderControllerDefinitions extends LayeredDefinitions<Map<String, BedrockRenderController>> {
     private static final Logger LOGGER = LoggerFactory.getLogger(RenderControllerDefinitions.class);
 
     private final Map<String, BedrockRenderController> renderControllers = new HashMap<>();
 
     public RenderControllerDefinitions(final PackManager packManager) {
-        for (Content content : packManager.getPacks()) {
-            for (String controllerPath : content.getFilesDeep("render_controllers/", ".json")) {
-                try {
-                    for (BedrockRenderController bedrockRenderController : BedrockControllerParser.parse(content.getString(controllerPath))) {
-                        this.renderControllers.put(bedrockRenderController.identifier(), bedrockRenderController);
-                    }
-                } catch (Throwable e) {
-                    LOGGER.warn("Failed to parse render controller definition {}", controllerPath);
+        this.load(packManager);
+    }
+
+    @Override
+    protected Map<String, BedrockRenderController> parseLayer(final Content content) {
+        final List<String> paths = content.getFilesDeep("render_controllers/", ".json");
+        if (paths.isEmpty()) {
+            return null;
+        }
+
+        final Map<String, BedrockRenderController> layer = new HashMap<>();
+        for (String controllerPath : paths) {
+            try {
+                for (BedrockRenderController bedrockRenderController : BedrockControllerParser.parse(content.getString(controllerPath))) {
+                    layer.put(bedrockRenderController.identifier(), bedrockRenderController);
                 }
+            } catch (Throwable e) {
+                LOGGER.warn("Failed to parse render controller definition {}", controllerPath);
+                this.reportParseFailure(controllerPath, e);
             }
         }
+        return layer;
+    }
+
+    @Override
+    protected void clear() {
+        this.renderControllers.clear();
+    }
+
+    @Override
+    protected void merge(final Map<String, BedrockRenderController> layer) {
+        this.renderControllers.putAll(layer);
     }
 }
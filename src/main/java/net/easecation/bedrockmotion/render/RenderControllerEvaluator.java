@@ -1,6 +1,10 @@
 package net.easecation.bedrockmotion.render;
 
+import jdk.jfr.EventType;
+import net.easecation.bedrockmotion.jfr.RenderControllerEvalEvent;
+import net.easecation.bedrockmotion.metrics.Metrics;
 import net.easecation.bedrockmotion.mocha.MoLangEngine;
+import net.easecation.bedrockmotion.mocha.ParseCache;
 import net.easecation.bedrockmotion.pack.definitions.controller.RenderControllerDefinitions;
 import org.cube.converter.data.bedrock.BedrockEntityData;
 import org.cube.converter.data.bedrock.controller.BedrockRenderController;
@@ -20,6 +24,8 @@ import java.util.*;
  */
 public class RenderControllerEvaluator {
     private static final Logger LOGGER = LoggerFactory.getLogger(RenderControllerEvaluator.class);
+    // Checked before creating the event so that evaluations allocate nothing for it while it is not recorded
+    private static final EventType EVAL_EVENT = EventType.getEventType(RenderControllerEvalEvent.class);
 
     /**
      * Result of evaluating render controllers for an entity.
@@ -49,7 +55,33 @@ public class RenderControllerEvaluator {
             RenderControllerDefinitions rcDefs,
             Map<String, String> inverseGeometryMap,
             Map<String, String> inverseTextureMap) {
+        final RenderControllerEvalEvent event = EVAL_EVENT.isEnabled() ? new RenderControllerEvalEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        final long startNanos = Metrics.isEnabled() ? System.nanoTime() : 0;
+        final List<EvaluatedModel> models = evaluateControllers(entityData, scope, rcDefs, inverseGeometryMap, inverseTextureMap);
+        if (Metrics.isEnabled()) {
+            Metrics.get().renderControllerEvalNanos(System.nanoTime() - startNanos);
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.entity = entityData.getIdentifier();
+                event.controllers = entityData.getControllers().size();
+                event.models = models.size();
+                event.commit();
+            }
+        }
+        return models;
+    }
 
+    private static List<EvaluatedModel> evaluateControllers(
+            BedrockEntityData entityData,
+            Scope scope,
+            RenderControllerDefinitions rcDefs,
+            Map<String, String> inverseGeometryMap,
+            Map<String, String> inverseTextureMap) {
         final List<EvaluatedModel> models = new ArrayList<>();
 
         for (final BedrockEntityData.RenderController entityRenderController : entityData.getControllers()) {
@@ -62,27 +94,30 @@ public class RenderControllerEvaluator {
             // Evaluate render controller condition
             if (!entityRenderController.condition().isBlank()) {
                 try {
-                    final Value conditionResult = MoLangEngine.eval(scope, entityRenderController.condition());
+                    final Value conditionResult = MoLangEngine.eval(scope, entityRenderController.condition(), rcDefs.getParseCache());
                     if (!conditionResult.getAsBoolean()) {
                         continue;
                     }
                 } catch (Throwable e) {
                     LOGGER.warn("Failed to evaluate render controller condition", e);
+                    if (Metrics.isEnabled()) {
+                        Metrics.get().evalError();
+                    }
                     continue;
                 }
             }
 
             try {
                 final Scope geometryScope = scope.copy();
-                geometryScope.set("array", getArrayBinding(scope, renderController.geometries()));
+                geometryScope.set("array", getArrayBinding(scope, renderController.geometries(), rcDefs.getParseCache()));
                 final Scope textureScope = scope.copy();
-                textureScope.set("array", getArrayBinding(scope, renderController.textures()));
+                textureScope.set("array", getArrayBinding(scope, renderController.textures(), rcDefs.getParseCache()));
 
-                final String geometryValue = MoLangEngine.eval(geometryScope, renderController.geometryExpression()).getAsString();
+                final String geometryValue = MoLangEngine.eval(geometryScope, renderController.geometryExpression(), rcDefs.getParseCache()).getAsString();
                 final String geometryName = inverseGeometryMap.get(geometryValue);
 
                 for (String textureExpression : renderController.textureExpressions()) {
-                    final String textureValue = MoLangEngine.eval(textureScope, textureExpression).getAsString();
+                    final String textureValue = MoLangEngine.eval(textureScope, textureExpression, rcDefs.getParseCache()).getAsString();
                     final String textureName = inverseTextureMap.get(textureValue);
                     if (geometryName != null && textureName != null) {
                         models.add(new EvaluatedModel(
@@ -91,6 +126,9 @@ public class RenderControllerEvaluator {
                     }
                 }
             } catch (Throwable e) {
+                if (Metrics.isEnabled()) {
+                    Metrics.get().evalError();
+                }
                 return List.of();
             }
         }
@@ -99,13 +137,13 @@ public class RenderControllerEvaluator {
     }
 
     private static MutableObjectBinding getArrayBinding(
-            Scope scope, List<BedrockRenderController.Array> arrays) throws IOException {
+            Scope scope, List<BedrockRenderController.Array> arrays, ParseCache parseCache) throws IOException {
         final MutableObjectBinding arrayBinding = new MutableObjectBinding();
         for (BedrockRenderController.Array array : arrays) {
             if (array.name().toLowerCase(Locale.ROOT).startsWith("array.")) {
                 final String[] resolvedExpressions = new String[array.values().size()];
                 for (int i = 0; i < array.values().size(); i++) {
-                    resolvedExpressions[i] = MoLangEngine.eval(scope, array.values().get(i)).getAsString();
+                    resolvedExpressions[i] = MoLangEngine.eval(scope, array.values().get(i), parseCache).getAsString();
                 }
                 arrayBinding.set(array.name().substring(6), Value.of(resolvedExpressions));
             }
@@ -0,0 +1,352 @@
+package net.easecation.bedrockmotion.scheduler;
+
+import lombok.Getter;
+import net.easecation.bedrockmotion.animator.Animator;
+import net.easecation.bedrockmotion.controller.AnimationControllerInstance;
+import net.easecation.bedrockmotion.lod.EntityLod;
+import net.easecation.bedrockmotion.metrics.Metrics;
+import net.easecation.bedrockmotion.model.BoneSlots;
+import net.easecation.bedrockmotion.model.IBoneModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import team.unnamed.mocha.runtime.Scope;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the animations of many entities under a per-tick CPU budget. Entities are updated in order of priority plus
+ * staleness (ticks since their last update); once the budget is spent the rest is deferred to a later tick and keeps
+ * its last pose. Deferred entities gain urgency every tick they wait, and an entity waiting {@code maxDeferredTicks}
+ * is updated regardless of the budget, so far-away entities degrade to a lower update rate instead of freezing.
+ * <p>
+ * Skipping an update loses nothing but smoothness: animators run on wall-clock time, and timeline/particle events of
+ * the skipped ticks fire on the next update. Controller transitions are evaluated on the next update as well.
+ * <p>
+ * An entity whose update throws is logged and may be left partially posed for that tick; the other entities of the
+ * tick are still updated and the tick is still recorded.
+ * <p>
+ * Not thread-safe, use one scheduler per ticking thread.
+ * <pre>{@code
+ * AnimationScheduler scheduler = new AnimationScheduler(2_000_000);   // 2 ms per tick
+ * AnimationScheduler.Entry entry = scheduler.register(boneModel, frameScope);
+ * entry.addController(controller);
+ * entry.setScopeUpdater(() -> fillQueries(entity, frameScope));
+ *
+ * // each tick
+ * entry.setPriority(1 / (1 + distance));
+ * scheduler.tick();
+ * }</pre>
+ */
+public class AnimationScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnimationScheduler.class);
+    public static final int DEFAULT_MAX_DEFERRED_TICKS = 20;
+    // Runs shorter than this are insertion sorted before merging
+    private static final int INSERTION_SORT_RUN = 32;
+
+    private final List<Entry> entries = new ArrayList<>();
+    // Update order of the current tick and merge scratch, reused across ticks so sorting allocates nothing
+    private Entry[] order = new Entry[0], scratch = new Entry[0];
+    private int orderSize;
+    @Getter
+    private long budgetNanos;
+    @Getter
+    private int maxDeferredTicks = DEFAULT_MAX_DEFERRED_TICKS;
+    // Score gained per tick of waiting
+    @Getter
+    private float stalenessWeight = 1.0f;
+
+    // Last tick
+    @Getter
+    private int lastUpdated, queueDepth;
+    @Getter
+    private long lastTickNanos;
+    // Totals
+    @Getter
+    private long updates, skippedUpdates, overBudgetTicks, failedUpdates;
+
+    /**
+     * @param budgetNanos time per {@link #tick} after which remaining entities are deferred
+     */
+    public AnimationScheduler(final long budgetNanos) {
+        this.setBudgetNanos(budgetNanos);
+    }
+
+    public void setBudgetNanos(final long budgetNanos) {
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + budgetNanos);
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    public void setMaxDeferredTicks(final int maxDeferredTicks) {
+        if (maxDeferredTicks < 1) {
+            throw new IllegalArgumentException("Max deferred ticks must be at least 1: " + maxDeferredTicks);
+        }
+        this.maxDeferredTicks = maxDeferredTicks;
+    }
+
+    public void setStalenessWeight(final float stalenessWeight) {
+        if (stalenessWeight < 0) {
+            throw new IllegalArgumentException("Staleness weight must not be negative: " + stalenessWeight);
+        }
+        this.stalenessWeight = stalenessWeight;
+    }
+
+    /**
+     * Registers an entity. Animators and controllers added to the entry read {@code frameScope}.
+     */
+    public Entry register(final IBoneModel model, final Scope frameScope) {
+        final Entry entry = new Entry(model, frameScope);
+        this.entries.add(entry);
+        return entry;
+    }
+
+    public boolean unregister(final Entry entry) {
+        return this.entries.remove(entry);
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Updates entities in order of priority plus staleness until the budget is spent. At least one entity is
+     * updated per tick, and entities deferred for {@code maxDeferredTicks} are always updated.
+     */
+    public void tick() {
+        final long start = System.nanoTime();
+        final long deadline = start + this.budgetNanos;
+
+        final int size = this.entries.size();
+        if (this.order.length < size) {
+            this.order = new Entry[Math.max(size, this.order.length * 2)];
+            this.scratch = new Entry[this.order.length];
+        }
+        for (int i = 0; i < size; i++) {
+            final Entry entry = this.entries.get(i);
+            entry.score = entry.priority + entry.staleTicks * this.stalenessWeight;
+            this.order[i] = entry;
+        }
+        // Drop references to entries unregistered since the last tick
+        for (int i = size; i < this.orderSize; i++) {
+            this.order[i] = null;
+            this.scratch[i] = null;
+        }
+        this.orderSize = size;
+        this.sortByScore(size);
+
+        int updated = 0, deferred = 0;
+        for (int i = 0; i < size; i++) {
+            final Entry entry = this.order[i];
+            final boolean forced = entry.staleTicks >= this.maxDeferredTicks;
+            if (!forced && updated > 0 && System.nanoTime() - deadline >= 0) {
+                entry.poseChanged = false;
+                entry.staleTicks++;
+                deferred++;
+                continue;
+            }
+            try {
+                entry.update();
+                entry.failing = false;
+            } catch (RuntimeException e) {
+                entry.poseChanged = false;
+                this.failedUpdates++;
+                // Once per failure streak, an entity that keeps throwing would otherwise log every tick
+                if (!entry.failing) {
+                    entry.failing = true;
+                    LOGGER.warn("[AnimationScheduler] Update failed for {}", entry.model, e);
+                }
+            }
+            entry.staleTicks = 0;
+            updated++;
+        }
+
+        this.lastTickNanos = System.nanoTime() - start;
+        this.lastUpdated = updated;
+        this.queueDepth = deferred;
+        this.updates += updated;
+        this.skippedUpdates += deferred;
+        if (deferred > 0) {
+            this.overBudgetTicks++;
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.get().schedulerTick(updated, deferred, this.lastTickNanos);
+        }
+    }
+
+    /**
+     * Sorts the first {@code size} entries of {@link #order} by score, highest first. Stable, so ties keep
+     * registration order: insertion sorted runs merged bottom-up through {@link #scratch}, unlike
+     * {@code List.sort} which allocates a merge buffer for more than 32 entries.
+     */
+    private void sortByScore(final int size) {
+        Entry[] src = this.order, dst = this.scratch;
+        for (int from = 0; from < size; from += INSERTION_SORT_RUN) {
+            final int to = Math.min(from + INSERTION_SORT_RUN, size);
+            for (int i = from + 1; i < to; i++) {
+                final Entry entry = src[i];
+                int j = i - 1;
+                while (j >= from && src[j].score < entry.score) {
+                    src[j + 1] = src[j];
+                    j--;
+                }
+                src[j + 1] = entry;
+            }
+        }
+        for (int width = INSERTION_SORT_RUN; width < size; width *= 2) {
+            for (int from = 0; from < size; from += 2 * width) {
+                final int mid = Math.min(from + width, size), to = Math.min(from + 2 * width, size);
+                int left = from, right = mid, out = from;
+                while (left < mid && right < to) {
+                    // Taking the left entry on ties keeps the sort stable
+                    dst[out++] = src[right].score > src[left].score ? src[right++] : src[left++];
+                }
+                System.arraycopy(src, left, dst, out, mid - left);
+                System.arraycopy(src, right, dst, out + mid - left, to - right);
+            }
+            final Entry[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != this.order) {
+            System.arraycopy(src, 0, this.order, 0, size);
+        }
+    }
+
+    /**
+     * One scheduled entity: its bones, frame scope and the animators and controllers driving them.
+     */
+    public static final class Entry {
+        @Getter
+        private final IBoneModel model;
+        @Getter
+        private final Scope frameScope;
+        private final List<AnimationControllerInstance> controllers = new ArrayList<>();
+        private final List<Animator> animators = new ArrayList<>();
+        @Getter
+        private float priority = 1.0f;
+        @Getter
+        private int staleTicks;
+        // Whether the last tick wrote a pose different from the previous update's
+        @Getter
+        private boolean poseChanged;
+        private Runnable scopeUpdater;
+        private EntityLod lod;
+        private BoneSlots boneSlots;
+        private float score;
+        private boolean failing;
+
+        private Entry(final IBoneModel model, final Scope frameScope) {
+            this.model = model;
+            this.frameScope = frameScope;
+        }
+
+        /**
+         * Adds a controller, applying the entry's LOD and bone slots if they are set.
+         */
+        public Entry addController(final AnimationControllerInstance controller) {
+            controller.setBaseScope(this.frameScope);
+            if (this.lod != null) {
+                controller.setLod(this.lod);
+            }
+            if (this.boneSlots != null) {
+                controller.setBoneSlots(this.boneSlots);
+            }
+            this.controllers.add(controller);
+            return this;
+        }
+
+        /**
+         * Adds an animator, applying the entry's LOD and bone slots if they are set.
+         */
+        public Entry addAnimator(final Animator animator) {
+            animator.setBaseScope(this.frameScope);
+            if (this.lod != null) {
+                animator.setLod(this.lod);
+            }
+            if (this.boneSlots != null) {
+                animator.setBoneSlots(this.boneSlots);
+            }
+            this.animators.add(animator);
+            return this;
+        }
+
+        public boolean removeController(final AnimationControllerInstance controller) {
+            return this.controllers.remove(controller);
+        }
+
+        public boolean removeAnimator(final Animator animator) {
+            return this.animators.remove(animator);
+        }
+
+        /**
+         * Higher runs first; e.g. derive it from the distance to the nearest viewer.
+         */
+        public void setPriority(final float priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * Called before each update to fill the frame scope, so deferred entities skip that work too.
+         */
+        public void setScopeUpdater(final Runnable scopeUpdater) {
+            this.scopeUpdater = scopeUpdater;
+        }
+
+        /**
+         * Applies an entity LOD to the entry's animators and controllers; the scheduler then brackets each update
+         * with {@link EntityLod#beginFrame()} and {@link EntityLod#endFrame}.
+         */
+        public void setLod(final EntityLod lod) {
+            this.lod = lod;
+            this.controllers.forEach(c -> c.setLod(lod));
+            this.animators.forEach(a -> a.setLod(lod));
+        }
+
+        /**
+         * Records the bones written by the entry's animators and controllers; updates then reset only those
+         * instead of calling {@code resetAllBones()}.
+         */
+        public void setBoneSlots(final BoneSlots boneSlots) {
+            this.boneSlots = boneSlots;
+            this.controllers.forEach(c -> c.setBoneSlots(boneSlots));
+            this.animators.forEach(a -> a.setBoneSlots(boneSlots));
+        }
+
+        private void update() {
+            if (this.scopeUpdater != null) {
+                this.scopeUpdater.run();
+            }
+            if (this.lod != null) {
+                this.lod.beginFrame();
+            }
+            if (this.boneSlots != null) {
+                this.boneSlots.resetWritten();
+            } else {
+                this.model.resetAllBones();
+            }
+            boolean changed = false;
+            try {
+                for (AnimationControllerInstance controller : this.controllers) {
+                    controller.tick(this.frameScope);
+                    changed |= controller.animate(this.model);
+                }
+                for (Animator animator : this.animators) {
+                    try {
+                        changed |= animator.animate(this.model);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            } finally {
+                if (this.lod != null) {
+                    this.lod.endFrame(this.model);
+                }
+            }
+            this.poseChanged = changed;
+        }
+    }
+}
@@ -3,7 +3,11 @@ package net.easecation.bedrockmotion.util;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -46,4 +50,70 @@ public class JsonUtil {
 
         return strings;
     }
+
+    /**
+     * Streaming equivalent of {@link #jsonArrayToStringArray(JsonArray)}: reads a 3-element array,
+     * ignoring any extra elements.
+     */
+    public static String[] readStringArray3(final JsonReader reader) throws IOException {
+        final String[] result = new String[3];
+        int i = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (i < 3) {
+                result[i++] = readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        if (i < 3) {
+            throw new JsonParseException("Expected 3 elements but got " + i + " at " + reader.getPath());
+        }
+        return result;
+    }
+
+    /**
+     * Streaming equivalent of {@link #arrayToStringSet(JsonArray)}.
+     */
+    public static Set<String> readStringSet(final JsonReader reader) throws IOException {
+        final Set<String> strings = new HashSet<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            strings.add(readString(reader));
+        }
+        reader.endArray();
+        return strings;
+    }
+
+    /**
+     * Reads a primitive as a string, like {@link JsonElement#getAsString()} does (numbers keep their literal form).
+     */
+    public static String readString(final JsonReader reader) throws IOException {
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        }
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        throw new JsonParseException("Expected a primitive but got " + token + " at " + reader.getPath());
+    }
+
+    /**
+     * Reads a primitive as a boolean, like {@link JsonElement#getAsBoolean()} does.
+     */
+    public static boolean readBoolean(final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        return Boolean.parseBoolean(readString(reader));
+    }
+
+    /**
+     * Reads a primitive as a float, like {@link JsonElement#getAsFloat()} does.
+     */
+    public static float readFloat(final JsonReader reader) throws IOException {
+        return Float.parseFloat(readString(reader));
+    }
 }